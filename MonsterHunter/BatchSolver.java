@@ -0,0 +1,118 @@
+/* BatchSolver.java
+ * Solves many maps in one JVM on a fixed pool of threads, so start-up and warm-up are paid once
+ * Every map is solved with its own grids and results and written to its own file, so runs cannot clobber each other
+ * Usage: BatchSolver <directory or glob> [--out directory] [--threads count] [MonsterHunter options]
+ */
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class BatchSolver{
+  /**
+   * findMaps
+   * Lists the maps to solve: every .txt file of a directory, or every file matching a glob such as maps/level*.txt
+   * @param A directory or a glob
+   * @return The map files, sorted by name
+   */
+  static List<Path> findMaps(String pattern) throws Exception{
+    Path path=Paths.get(pattern);
+    Path directory;
+    String glob;
+    if (Files.isDirectory(path)){
+      directory=path;
+      glob="*.txt";
+    } else {
+      directory=(path.getParent()!=null) ? path.getParent() : Paths.get(".");
+      glob=path.getFileName().toString();
+    }
+    
+    List<Path> maps=new ArrayList<Path>();
+    try (DirectoryStream<Path> stream=Files.newDirectoryStream(directory, glob)){
+      for (Path map : stream){
+        if (Files.isRegularFile(map)){
+          maps.add(map);
+        }
+      }
+    }
+    Collections.sort(maps);
+    return maps;
+  }
+  
+  
+  /**
+   * solveOne
+   * Solves a map into its own solution file, and its own dump files with --dump
+   * Any failure, errors included, is reported on the map's line so the other maps are still solved and summarised
+   * @param The map, the output directory, and the command line options
+   * @return The line of the summary for this map
+   */
+  static String solveOne(Path map, File outDirectory, String[] args){
+    String name=map.getFileName().toString();
+    String base=name.endsWith(".txt") ? name.substring(0, name.length()-4) : name;
+    long start=System.nanoTime();
+    TextDumpSink dump=null;
+    try {
+      if (MonsterHunter.hasOption(args, "--dump")){
+        dump=new TextDumpSink(new File(outDirectory, base+".BlockCombos.txt"), new File(outDirectory, base+".NumberStepsList.txt"));
+      }
+      Solution solution=MonsterHunter.solve(map.toString(), new File(outDirectory, base+".solution.txt"), dump, args);
+      long millis=(System.nanoTime()-start)/1000000;
+      return name+"\t"+solution.trapCount()+"\t"+solution.monsterSteps+"\t"+solution.hunterSteps+"\t"+millis+"\t"+solution.proven;
+    } catch (Throwable e){ //Even a map that overflows the stack or runs out of memory only fails its own line
+      return name+"\terror\t"+e;
+    } finally {
+      if (dump!=null){
+        dump.close();
+      }
+    }
+  }
+  
+  
+  /**
+   * main
+   * Solves every map on the pool, then writes summary.txt with one line per map in name order
+   * @param String[] args
+   * @return nothing
+   */
+  public static void main(String[] args) throws Exception{
+    if ((args.length==0) || (args[0].startsWith("--"))){
+      System.out.println("Usage: BatchSolver <directory or glob> [--out directory] [--threads count] [MonsterHunter options]");
+      return;
+    }
+    
+    List<Path> maps=findMaps(args[0]);
+    File outDirectory=new File(MonsterHunter.optionValue(args, "--out", "solutions"));
+    int threads=Integer.parseInt(MonsterHunter.optionValue(args, "--threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+    outDirectory.mkdirs();
+    
+    Metrics.register();
+    ExecutorService pool=Executors.newFixedThreadPool(Math.max(1, threads));
+    List<Future<String>> lines=new ArrayList<Future<String>>();
+    for (Path map : maps){
+      lines.add(pool.submit(() -> solveOne(map, outDirectory, args)));
+    }
+    
+    PrintWriter summary=new PrintWriter(new File(outDirectory, "summary.txt"));
+    summary.println("map\ttraps\tmonster steps\thunter steps\tmilliseconds\tproven");
+    for (Future<String> line : lines){
+      summary.println(line.get());
+    }
+    summary.close();
+    pool.shutdown();
+    
+    System.out.println("Solved "+maps.size()+" maps into "+outDirectory);
+    if (MonsterHunter.hasOption(args, "--metrics")){
+      System.out.println(Metrics.report());
+    }
+  }
+}
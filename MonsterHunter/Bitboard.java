@@ -0,0 +1,204 @@
+/* Bitboard.java
+ * The passable cells of a grid packed into longs, 64 cells per word and one or more words per row
+ * Reachability is a flood fill made of shifts and masks on whole words, so blocking a trap is clearing one bit-
+ * and answering "can the exit still be reached" allocates nothing
+ */
+
+import java.util.Arrays;
+
+class Bitboard{
+  final int width;
+  final int height;
+  final int words; //Words per row
+  final long[] open; //Bit x%64 of word y*words+x/64 is set when cell (y,x) is passable
+
+  /**
+   * Bitboard
+   * @param The grid and a table of the passable cell types (see Grid.types)
+   */
+  Bitboard(Grid grid, boolean[] passable){
+    width=grid.width;
+    height=grid.height;
+    words=(width+63)/64;
+    open=new long[words*height];
+    for (int i=0; i<grid.cells.length; i++){
+      if (passable[grid.cells[i]&0xff]){
+        open[word(i)]|=bit(i);
+      }
+    }
+  }
+
+  private Bitboard(Bitboard other){
+    width=other.width;
+    height=other.height;
+    words=other.words;
+    open=other.open.clone();
+  }
+
+  /**
+   * copy
+   * @return An independent copy, so each thread can block its own traps
+   */
+  Bitboard copy(){
+    return new Bitboard(this);
+  }
+
+  private int word(int cell){
+    return (cell/width)*words+(cell%width)/64;
+  }
+
+  private long bit(int cell){
+    return 1L<<((cell%width)%64);
+  }
+
+  /**
+   * block
+   * @param A grid cell to make impassable
+   * @return nothing
+   */
+  void block(int cell){
+    open[word(cell)]&=~bit(cell);
+  }
+
+  /**
+   * unblock
+   * @param A grid cell to make passable again
+   * @return nothing
+   */
+  void unblock(int cell){
+    open[word(cell)]|=bit(cell);
+  }
+
+  /**
+   * newBuffer
+   * @return A buffer for reaches, to be reused between calls
+   */
+  long[] newBuffer(){
+    return new long[open.length];
+  }
+
+  /**
+   * reaches
+   * Floods out from every start cell at once with alternating downward and upward sweeps over the rows until nothing changes
+   * @param The grid cells to start from, the grid cells to reach, and a buffer from newBuffer
+   * @return True if there is a passable route from any start cell to any of the cells to reach
+   */
+  boolean reaches(int[] fromCells, int[] toCells, long[] reach){
+    Arrays.fill(reach, 0L);
+    for (int i=0; i<fromCells.length; i++){
+      reach[word(fromCells[i])]|=bit(fromCells[i]);
+    }
+
+    boolean changed=true;
+    while (changed){
+      changed=false;
+      for (int y=0; y<height; y++){
+        changed|=spread(y, reach);
+      }
+      for (int y=height-2; y>=0; y--){
+        changed|=spread(y, reach);
+      }
+      for (int i=0; i<toCells.length; i++){
+        if ((reach[word(toCells[i])]&bit(toCells[i]))!=0){
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * spread
+   * Pulls in the reached cells of the rows above and below, then fills along the open runs of the row
+   * @param A row and the reached cells
+   * @return True if any cell of the row was newly reached
+   */
+  private boolean spread(int y, long[] reach){
+    int row=y*words;
+    boolean changed=false;
+
+    for (int w=0; w<words; w++){
+      long vertical=0L;
+      if (y>0){
+        vertical|=reach[row-words+w];
+      }
+      if (y<height-1){
+        vertical|=reach[row+words+w];
+      }
+      long grown=reach[row+w]|(vertical&open[row+w]);
+      if (grown!=reach[row+w]){
+        reach[row+w]=grown;
+        changed=true;
+      }
+    }
+
+    //Towards higher columns, carrying the top bit of each word into the next one
+    long carry=0L;
+    for (int w=0; w<words; w++){
+      long before=reach[row+w];
+      long filled=fillUp(before|(carry&open[row+w]), open[row+w]);
+      carry=filled>>>63;
+      if (filled!=before){
+        reach[row+w]=filled;
+        changed=true;
+      }
+    }
+
+    //Towards lower columns
+    carry=0L;
+    for (int w=words-1; w>=0; w--){
+      long before=reach[row+w];
+      long filled=fillDown(before|(carry&open[row+w]), open[row+w]);
+      carry=filled<<63;
+      if (filled!=before){
+        reach[row+w]=filled;
+        changed=true;
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * fillUp
+   * Kogge-Stone fill: every set bit spreads towards higher bits for as long as the open bits continue
+   * @param The seeds and the open bits of one word
+   * @return The filled word
+   */
+  private static long fillUp(long seeds, long open){
+    long pass=open;
+    seeds|=pass&(seeds<<1);
+    pass&=pass<<1;
+    seeds|=pass&(seeds<<2);
+    pass&=pass<<2;
+    seeds|=pass&(seeds<<4);
+    pass&=pass<<4;
+    seeds|=pass&(seeds<<8);
+    pass&=pass<<8;
+    seeds|=pass&(seeds<<16);
+    pass&=pass<<16;
+    seeds|=pass&(seeds<<32);
+    return seeds;
+  }
+
+  /**
+   * fillDown
+   * The same fill towards lower bits
+   * @param The seeds and the open bits of one word
+   * @return The filled word
+   */
+  private static long fillDown(long seeds, long open){
+    long pass=open;
+    seeds|=pass&(seeds>>>1);
+    pass&=pass>>>1;
+    seeds|=pass&(seeds>>>2);
+    pass&=pass>>>2;
+    seeds|=pass&(seeds>>>4);
+    pass&=pass>>>4;
+    seeds|=pass&(seeds>>>8);
+    pass&=pass>>>8;
+    seeds|=pass&(seeds>>>16);
+    pass&=pass>>>16;
+    seeds|=pass&(seeds>>>32);
+    return seeds;
+  }
+}
@@ -0,0 +1,132 @@
+/* BlockComboSearch.java
+ * Tries blocking combinations in parallel on a fork/join pool, smallest combinations first
+ * Combinations with the same number of traps are searched together; once a size blocks the exit no larger size is started,
+ * and the highest binary code of that size is kept, which is the combination the one-at-a-time loop in main picks
+ */
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+class BlockComboSearch{
+  static final int MAX_TRAPS=62; //Combinations are kept in a long
+  private static final long SPLIT_THRESHOLD=256; //Subtrees with fewer combinations than this are searched by one task
+
+  private final Bitboard board;
+  private final int[] startCells;
+  private final int[] exitCells;
+  private final int[] trapCells;
+  private final int trapCount;
+  private final long[][] binomial;
+
+  /**
+   * BlockComboSearch
+   * @param The maze, the grid cells the monster starts on, the grid cells of the exits, and the grid cells of the on-path-
+   * traps in the order of the binary codes
+   */
+  BlockComboSearch(Grid maze, int[] startCells, int[] exitCells, int[] trapCells){
+    if (trapCells.length>MAX_TRAPS){
+      throw new IllegalArgumentException("Too many traps to enumerate: "+trapCells.length);
+    }
+    this.board=new Bitboard(maze, Grid.MONSTER_PASSABLE);
+    this.startCells=startCells;
+    this.exitCells=exitCells;
+    this.trapCells=trapCells;
+    this.trapCount=trapCells.length;
+
+    //Number of ways to choose k of n traps, capped so it cannot overflow
+    binomial=new long[trapCount+1][trapCount+1];
+    for (int n=0; n<=trapCount; n++){
+      binomial[n][0]=1;
+      for (int k=1; k<=n; k++){
+        binomial[n][k]=Math.min(Long.MAX_VALUE/2, binomial[n-1][k-1]+binomial[n-1][k]);
+      }
+    }
+  }
+
+  /**
+   * search
+   * @param The pool to run the tasks on
+   * @return The binary code of the smallest blocking combination, or an empty string if none blocks the exit
+   */
+  String search(ForkJoinPool pool){
+    for (int size=1; size<=trapCount; size++){
+      AtomicLong best=new AtomicLong(-1);
+      pool.invoke(new Task(size, 0, 0, 0L, best));
+
+      if (best.get()>=0){
+        String binaryCode=Long.toBinaryString(best.get());
+        while (binaryCode.length()<trapCount){
+          binaryCode="0"+binaryCode; //Pads the binaryCode with "0"s
+        }
+        return binaryCode;
+      }
+    }
+    return "";
+  }
+
+  /**
+   * Task
+   * Decides for the traps from index onwards whether they are blocked, given the choices already made for earlier traps
+   * Trap k is bit trapCount-1-k of the combination, as in the binary codes of main
+   */
+  private class Task extends RecursiveAction{
+    private static final long serialVersionUID=1L;
+
+    private final int size;
+    private final int index;
+    private final int chosen;
+    private final long combo;
+    private final AtomicLong best;
+
+    //Per-task buffers, created only by the task that does the searching
+    private Bitboard blocked;
+    private long[] reach;
+
+    Task(int size, int index, int chosen, long combo, AtomicLong best){
+      this.size=size;
+      this.index=index;
+      this.chosen=chosen;
+      this.combo=combo;
+      this.best=best;
+    }
+
+    protected void compute(){
+      int remaining=trapCount-index;
+      int needed=size-chosen;
+      if ((needed>0) && (needed<remaining) && (binomial[remaining][needed]>SPLIT_THRESHOLD)){
+        long bit=1L<<(trapCount-1-index);
+        invokeAll(new Task(size, index+1, chosen+1, combo|bit, best), new Task(size, index+1, chosen, combo, best));
+        return;
+      }
+
+      blocked=board.copy();
+      reach=blocked.newBuffer();
+      for (int k=0; k<index; k++){
+        if ((combo&(1L<<(trapCount-1-k)))!=0){
+          blocked.block(trapCells[k]);
+        }
+      }
+      enumerate(index, chosen, combo);
+    }
+
+    private void enumerate(int k, int count, long code){
+      if (count==size){
+        Metrics.count(Metrics.COMBINATIONS_TESTED);
+        if (!blocked.reaches(startCells, exitCells, reach)){
+          best.accumulateAndGet(code, Math::max);
+        }
+        return;
+      }
+      if (trapCount-k<size-count){
+        Metrics.count(Metrics.BRANCHES_PRUNED);
+        return; //Not enough traps left to make up the size
+      }
+
+      blocked.block(trapCells[k]);
+      enumerate(k+1, count+1, code|(1L<<(trapCount-1-k)));
+      blocked.unblock(trapCells[k]);
+      enumerate(k+1, count, code);
+    }
+  }
+}
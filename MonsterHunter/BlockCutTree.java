@@ -0,0 +1,178 @@
+/* BlockCutTree.java
+ * Splits the maze graph into biconnected blocks joined at articulation cells
+ * Every simple path from the start to a cell passes through the same chain of blocks, and every cell of those blocks-
+ * lies on at least one such path, so the traps that matter are found in linear time without listing any paths
+ * The search runs from the super-source to the super-sink of the graph, so every entrance and exit is covered at once
+ */
+
+import java.util.Arrays;
+
+class BlockCutTree{
+  private final MazeGraph graph;
+  private final int start;
+  private final int exit;
+
+  private final int[] parent; //Parent of every node in the depth-first search tree, -1 for the start and unreached nodes
+  private final int[] blockOf; //The block a node was popped into, which is also the block of the tree edge to its parent
+  private int blockCount=0;
+
+  /**
+   * BlockCutTree
+   * Runs an iterative version of Tarjan's biconnected component search from the super-source
+   * @param The maze graph, with terminals
+   */
+  BlockCutTree(MazeGraph graph){
+    this.graph=graph;
+    this.start=graph.source;
+    this.exit=graph.sink;
+
+    int n=graph.nodeCount;
+    parent=new int[n];
+    blockOf=new int[n];
+    Arrays.fill(parent, -1);
+    Arrays.fill(blockOf, -1);
+
+    if (start<0){
+      return;
+    }
+
+    int[] disc=new int[n]; //Discovery time, 0 when not yet visited
+    int[] low=new int[n];
+    int[] cursor=new int[n];
+    boolean[] skippedParent=new boolean[n];
+    int[] stack=new int[n];
+    int[] visited=new int[n];
+    int stackSize=0;
+    int visitedSize=0;
+    int time=0;
+
+    disc[start]=low[start]=++time;
+    cursor[start]=graph.first[start];
+    stack[stackSize++]=start;
+
+    while (stackSize>0){
+      int v=stack[stackSize-1];
+
+      if (cursor[v]<graph.first[v+1]){
+        int w=graph.target[cursor[v]++];
+        if ((w==parent[v]) && (!skippedParent[v])){
+          skippedParent[v]=true; //Only one edge back to the parent is the tree edge; any others close a cycle
+        } else if (disc[w]==0){
+          parent[w]=v;
+          disc[w]=low[w]=++time;
+          cursor[w]=graph.first[w];
+          stack[stackSize++]=w;
+          visited[visitedSize++]=w;
+        } else if (disc[w]<low[v]){
+          low[v]=disc[w];
+        }
+      } else {
+        stackSize-=1;
+        int p=parent[v];
+        if (p>=0){
+          if (low[v]<low[p]){
+            low[p]=low[v];
+          }
+          if (low[v]>=disc[p]){ //p separates v's subtree, so everything above v on the visited stack forms a block with p
+            int x;
+            do {
+              x=visited[--visitedSize];
+              blockOf[x]=blockCount;
+            } while (x!=v);
+            blockCount+=1;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * onPath
+   * Finds every node that lies on some simple path from the super-source to the super-sink
+   * The blocks on the tree path from the one to the other are exactly the blocks every such path crosses
+   * @return A table indexed by node; both ends of the path are excluded
+   */
+  boolean[] onPath(){
+    boolean[] onPath=new boolean[graph.nodeCount];
+    if ((start<0) || (exit<0) || (exit==start) || (parent[exit]<0)){
+      return onPath;
+    }
+
+    boolean[] crossed=new boolean[blockCount];
+    for (int v=exit; v!=start; v=parent[v]){
+      crossed[blockOf[v]]=true;
+      onPath[v]=true; //Cells on the tree path include the articulation cell where each block is entered
+    }
+    for (int v=0; v<graph.nodeCount; v++){
+      if ((blockOf[v]>=0) && (crossed[blockOf[v]])){
+        onPath[v]=true;
+      }
+    }
+    onPath[exit]=false;
+    return onPath;
+  }
+
+  /**
+   * trapsOnPath
+   * @return The grid cells of the potential traps on some path from an entrance to an exit, in ascending order
+   */
+  int[] trapsOnPath(){
+    boolean[] onPath=onPath();
+    int count=0;
+    int[] traps=new int[graph.nodeCount];
+    for (int v=0; v<graph.nodeCount; v++){
+      if ((onPath[v]) && (graph.trap(v))){
+        traps[count++]=graph.cell[v];
+      }
+    }
+    return Arrays.copyOf(traps, count);
+  }
+
+  /**
+   * dominatingTraps
+   * A cell lies on every path from the start to the exit, that is it dominates the exit, exactly when it joins two-
+   * blocks of the chain between them; in the depth-first search tree those are the nodes on the tree path to the exit-
+   * whose two tree edges belong to different blocks, so the dominator chain of the exit is read off in one walk
+   * Here the start and exit are the super-source and super-sink, so a dominator lies on every path from any entrance-
+   * to any exit
+   * @return The grid cells of the potential traps that dominate the super-sink, nearest the super-source first; empty-
+   * if no exit can be reached
+   */
+  int[] dominatingTraps(){
+    if ((exit<0) || (start<0) || (exit==start) || (parent[exit]<0)){
+      return new int[0];
+    }
+
+    int[] traps=new int[graph.nodeCount];
+    int count=0;
+    int child=exit;
+    for (int v=parent[exit]; (v>=0) && (v!=start); v=parent[v]){
+      if ((blockOf[child]!=blockOf[v]) && (graph.trap(v))){
+        traps[count++]=graph.cell[v];
+      }
+      child=v;
+    }
+
+    //The walk went from the exit towards the start
+    int[] nearestFirst=new int[count];
+    for (int i=0; i<count; i++){
+      nearestFirst[i]=traps[count-1-i];
+    }
+    return nearestFirst;
+  }
+
+  /**
+   * lowestTrap
+   * Any one dominating trap is a whole answer; of several, the lowest cell is kept, as the combinations (the highest
+   * binary code) and the cut both would
+   * @param The grid cells of the dominating traps, at least one
+   * @return The lowest of them
+   */
+  static int lowestTrap(int[] dominatingTraps){
+    int trap=dominatingTraps[0];
+    for (int i=1; i<dominatingTraps.length; i++){
+      trap=Math.min(trap, dominatingTraps[i]);
+    }
+    return trap;
+  }
+}
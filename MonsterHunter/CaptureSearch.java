@@ -0,0 +1,158 @@
+/* CaptureSearch.java
+ * Finds the number of steps the monster can take before it walks into a trap, as mode 3 of move does,
+ * but over a graph where each corridor is a single weighted edge
+ * When the part of the maze the monster can roam is a tree, each trap has exactly one path to it and a single traversal is enough
+ * The search starts from the super-source of the graph, so the monster may come in through any entrance
+ * Only simple paths are followed; mode 3 leaves the potential traps that were not set unmarked, so its walks may cross one of-
+ * them again and come out longer, and never end where two of them touch. Both agree wherever no such cell is crossed twice
+ */
+
+class CaptureSearch{
+  //How the step counts were found
+  static final int TREE=0; //A single traversal of a tree
+  static final int PATHS=1; //Every path was followed
+  static final int CUT_SHORT=2; //The deadline passed before every path was followed, so only some were reported
+
+  private static final int DEADLINE_CHECK=4095; //The clock is read once every this many plus one steps
+
+  /**
+   * run
+   * Reports the length of every path from a start cell that ends on a trap to the sink
+   * The start cell counts as the first step, as in move
+   * @param The graph of the cells the monster can walk through with every trap a node, joined to the start cells by-
+   * its super-source, and the sink that receives the step counts
+   * @return True if the tree traversal was used, false if the general path search was needed
+   */
+  static boolean run(MazeGraph graph, ResultSink sink){
+    return run(graph, sink, Deadline.NONE)==TREE;
+  }
+
+  /**
+   * run
+   * The same, stopping the path search at a deadline
+   * @param The graph, the sink, and the deadline
+   * @return TREE, PATHS, or CUT_SHORT if the deadline stopped the search
+   */
+  static int run(MazeGraph graph, ResultSink sink, Deadline deadline){
+    int start=graph.source;
+    if (start<0){
+      return PATHS;
+    }
+    if (treeSteps(graph, start, sink, true)){
+      return TREE;
+    }
+    return pathSteps(graph, start, sink, deadline) ? PATHS : CUT_SHORT;
+  }
+
+  /**
+   * treeSteps
+   * Walks the region the monster can reach without stepping past a trap, measuring the distance to every node,
+   * and counts its edges; with one edge fewer than nodes the region is a tree and the distances are the answer
+   * Otherwise the distances still follow one simple path to each trap, which is a lower bound on the answer
+   * @param The graph, the start node, the sink that receives the step counts, and whether to report only for a tree
+   * @return True if the step counts were reported
+   */
+  private static boolean treeSteps(MazeGraph graph, int start, ResultSink sink, boolean onlyTree){
+    int n=graph.nodeCount;
+    int[] steps=new int[n];
+    int[] order=new int[n];
+    boolean[] seen=new boolean[n];
+    int size=0;
+    int edgeEnds=0; //Edge ends at nodes that were expanded; an edge between two expanded nodes is seen from both sides
+    int trapEdges=0; //Edges into a trap, seen only from the expanded side
+
+    order[size++]=start;
+    seen[start]=true;
+    steps[start]=1;
+
+    for (int i=0; i<size; i++){
+      int v=order[i];
+      if ((v!=start) && (graph.type(v)==Grid.TRAP)){
+        continue; //The monster is caught here, so nothing past the trap matters
+      }
+      for (int e=graph.first[v]; e<graph.first[v+1]; e++){
+        int w=graph.target[e];
+        edgeEnds+=1;
+        if ((graph.type(w)==Grid.TRAP) && (w!=start)){
+          trapEdges+=1;
+        }
+        if (!seen[w]){
+          seen[w]=true;
+          steps[w]=steps[v]+graph.weight[e];
+          order[size++]=w;
+        }
+      }
+    }
+
+    Metrics.add(Metrics.CELLS_ENTERED, size);
+    int edges=(edgeEnds-trapEdges)/2+trapEdges;
+    if ((onlyTree) && (edges!=size-1)){
+      return false;
+    }
+
+    for (int i=0; i<size; i++){
+      if ((order[i]!=start) && (graph.type(order[i])==Grid.TRAP)){
+        sink.monsterSteps(steps[order[i]]);
+        Metrics.count(Metrics.LEAVES_REACHED);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * pathSteps
+   * Follows every simple path from the start, reporting its length each time it ends on a trap
+   * A potential trap that was not set is left for good like any other cell, unlike in mode 3 (see the top of the file)
+   * If the deadline passes before any path has ended on a trap, one path to each trap is reported instead
+   * @param The graph, the start node, the sink that receives the step counts, and the deadline
+   * @return True if every path was followed, false if the deadline passed first
+   */
+  private static boolean pathSteps(MazeGraph graph, int start, ResultSink sink, Deadline deadline){
+    int n=graph.nodeCount;
+    boolean[] onPath=new boolean[n];
+    int[] stack=new int[n];
+    int[] cursor=new int[n];
+    int[] steps=new int[n];
+    int size=0;
+    boolean reported=false;
+
+    stack[size++]=start;
+    cursor[start]=graph.first[start];
+    steps[start]=1;
+    onPath[start]=true;
+
+    for (long count=0; size>0; count++){
+      if (((count&DEADLINE_CHECK)==0) && (deadline.passed())){
+        if (!reported){
+          treeSteps(graph, start, sink, false);
+        }
+        return false;
+      }
+      int v=stack[size-1];
+      if (cursor[v]==graph.first[v+1]){
+        onPath[v]=false;
+        size-=1;
+        continue;
+      }
+
+      int e=cursor[v]++;
+      int w=graph.target[e];
+      if (onPath[w]){
+        continue;
+      }
+      if (graph.type(w)==Grid.TRAP){
+        sink.monsterSteps(steps[v]+graph.weight[e]); //The monster is caught as soon as it steps onto a trap
+        Metrics.count(Metrics.LEAVES_REACHED);
+        reported=true;
+        continue;
+      }
+
+      Metrics.count(Metrics.CELLS_ENTERED);
+      onPath[w]=true;
+      cursor[w]=graph.first[w];
+      steps[w]=steps[v]+graph.weight[e];
+      stack[size++]=w;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,42 @@
+/* Deadline.java
+ * A point in time after which the searches stop and hand back the best answer they have found
+ */
+
+class Deadline{
+  static final Deadline NONE=new Deadline(0L, false); //Never passes
+  
+  private final long end;
+  private final boolean set;
+  
+  private Deadline(long end, boolean set){
+    this.end=end;
+    this.set=set;
+  }
+  
+  /**
+   * after
+   * @param The number of milliseconds from now
+   * @return A deadline that many milliseconds away
+   */
+  static Deadline after(long millis){
+    return new Deadline(System.nanoTime()+millis*1000000L, true);
+  }
+  
+  /**
+   * fromOptions
+   * @param The command line arguments; --deadline is followed by a number of milliseconds
+   * @return The deadline, or NONE if there is none
+   */
+  static Deadline fromOptions(String[] args){
+    String millis=MonsterHunter.optionValue(args, "--deadline", null);
+    return (millis!=null) ? after(Long.parseLong(millis)) : NONE;
+  }
+  
+  /**
+   * passed
+   * @return True once the deadline is reached
+   */
+  boolean passed(){
+    return set && (System.nanoTime()-end>=0);
+  }
+}
@@ -0,0 +1,231 @@
+/* Grid.java
+ * A compact maze model that stores every cell as a byte in one row-major array
+ */
+
+import java.util.Arrays;
+
+class Grid{
+  //Cell types; the values are the characters used in the map files so a grid can be printed directly
+  static final byte OPEN=' ';
+  static final byte CRUMB='.';
+  static final byte POTENTIAL='P';
+  static final byte TRAP='T';
+  static final byte BLOCKED='B';
+  static final byte ENTRANCE='N';
+  static final byte EXIT='F';
+  static final byte WALL='+'; //Any wall character would do; edits close cells with this one
+
+  //Directions are tried in the same order as the original recursion: up, right, down, left
+  static final int UP=0;
+  static final int RIGHT=1;
+  static final int DOWN=2;
+  static final int LEFT=3;
+
+  //Cells the monster can walk through, and cells the hunter can walk through
+  static final boolean[] MONSTER_PASSABLE=types(OPEN, POTENTIAL, EXIT);
+  static final boolean[] HUNTER_PASSABLE=types(OPEN, TRAP, POTENTIAL);
+  static final boolean[] CAPTURE_PASSABLE=types(OPEN, POTENTIAL, EXIT, TRAP); //In mode 3 the monster also steps onto traps
+
+  //Cell types that must stay nodes when corridors are contracted, because a solver needs to see them
+  static final boolean[] MONSTER_NODES=types(POTENTIAL, EXIT);
+  static final boolean[] TRAP_NODES=types(TRAP);
+
+  final int width;
+  final int height;
+  final byte[] cells;
+
+  //Undo stack of cell indices, used to restore breadcrumbs that were wiped during a search
+  private int[] undo=new int[16];
+  private int undoSize=0;
+
+  /**
+   * Grid
+   * Creates an empty grid of the given size
+   * @param The width and the height of the maze
+   */
+  Grid(int width, int height){
+    this.width=width;
+    this.height=height;
+    this.cells=new byte[width*height];
+  }
+
+  /**
+   * types
+   * Builds a lookup table of cell types
+   * @param The cell types to include
+   * @return A table indexed by cell value that is true for the given types
+   */
+  static boolean[] types(byte... types){
+    boolean[] table=new boolean[256];
+    for (int i=0; i<types.length; i++){
+      table[types[i]&0xff]=true;
+    }
+    return table;
+  }
+
+  /**
+   * copy
+   * Makes an independent copy of the grid, including its undo stack
+   * @return A new grid with the same cells
+   */
+  Grid copy(){
+    Metrics.count(Metrics.GRID_COPIES);
+    Grid copy=new Grid(width, height);
+    System.arraycopy(cells, 0, copy.cells, 0, cells.length);
+    if (undoSize>0){
+      copy.undo=Arrays.copyOf(undo, Math.max(16, undoSize));
+      copy.undoSize=undoSize;
+    }
+    return copy;
+  }
+
+  /**
+   * index
+   * @param The y-coordinate and the x-coordinate of a cell
+   * @return The position of the cell in the cells array
+   */
+  int index(int y, int x){
+    return y*width+x;
+  }
+
+  /**
+   * neighbour
+   * Finds the cell next to another cell
+   * @param The index of a cell and the direction to look in
+   * @return The index of the neighbouring cell, or -1 if it is off the grid
+   */
+  int neighbour(int cell, int direction){
+    switch (direction){
+      case UP:
+        return (cell>=width) ? cell-width : -1;
+      case RIGHT:
+        return (cell%width!=width-1) ? cell+1 : -1;
+      case DOWN:
+        return (cell+width<cells.length) ? cell+width : -1;
+      default:
+        return (cell%width!=0) ? cell-1 : -1;
+    }
+  }
+
+  /**
+   * is
+   * @param The index of a cell (or -1) and a cell type
+   * @return True if the cell is on the grid and has the given type
+   */
+  boolean is(int cell, byte type){
+    return (cell>=0) && (cells[cell]==type);
+  }
+
+  /**
+   * findAll
+   * @param A cell type
+   * @return The indices of every cell with the given type, in ascending order
+   */
+  int[] findAll(byte type){
+    int[] found=new int[count(type)];
+    int count=0;
+    for (int i=0; i<cells.length; i++){
+      if (cells[i]==type){
+        found[count++]=i;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * startCells
+   * The monster walks in through an entrance, so it starts on a cell next to one; a map without an entrance starts at 1,1
+   * @return The cells the monster can walk onto from any entrance, in ascending order
+   */
+  int[] startCells(){
+    int[] entrances=findAll(ENTRANCE);
+    if (entrances.length==0){
+      return new int[]{index(1,1)};
+    }
+    boolean[] start=new boolean[cells.length];
+    int count=0;
+    for (int i=0; i<entrances.length; i++){
+      for (int direction=UP; direction<=LEFT; direction++){
+        int next=neighbour(entrances[i], direction);
+        if ((next>=0) && (!start[next]) && (MONSTER_PASSABLE[cells[next]&0xff])){
+          start[next]=true;
+          count+=1;
+        }
+      }
+    }
+    int[] starts=new int[count];
+    count=0;
+    for (int i=0; i<cells.length; i++){
+      if (start[i]){
+        starts[count++]=i;
+      }
+    }
+    return starts;
+  }
+
+  /**
+   * replaceAll
+   * Changes every cell of one type into another type
+   * @param The type to look for and the type to replace it with
+   * @return nothing
+   */
+  void replaceAll(byte from, byte to){
+    for (int i=0; i<cells.length; i++){
+      if (cells[i]==from){
+        cells[i]=to;
+      }
+    }
+  }
+
+  /**
+   * count
+   * @param A cell type
+   * @return The number of cells with the given type
+   */
+  int count(byte type){
+    int count=0;
+    for (int i=0; i<cells.length; i++){
+      if (cells[i]==type){
+        count+=1;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * mark
+   * @return The current height of the undo stack, to be passed to rollback later
+   */
+  int mark(){
+    return undoSize;
+  }
+
+  /**
+   * clearCrumbs
+   * Wipes every breadcrumb, remembering each one on the undo stack
+   * @return nothing
+   */
+  void clearCrumbs(){
+    for (int i=0; i<cells.length; i++){
+      if (cells[i]==CRUMB){
+        if (undoSize==undo.length){
+          undo=Arrays.copyOf(undo, undoSize*2);
+        }
+        undo[undoSize++]=i;
+        cells[i]=OPEN;
+      }
+    }
+  }
+
+  /**
+   * rollback
+   * Puts back every breadcrumb wiped since the given mark
+   * @param A height returned by mark
+   * @return nothing
+   */
+  void rollback(int mark){
+    while (undoSize>mark){
+      cells[undo[--undoSize]]=CRUMB;
+    }
+  }
+}
@@ -0,0 +1,465 @@
+/* HunterPlanner.java
+ * Finds the minimum number of steps for the hunter to set every trap
+ * A shortest path search from every trap gives the distances between traps, and the shortest walk through all of them-
+ * is solved over those distances with bitmask dynamic programming (Held-Karp), or parallel branch and bound for many traps
+ * Given a deadline, branch and bound stops when it passes and keeps the best walk found so far, which starts as a greedy-
+ * walk shortened with 2-opt; Held-Karp has no walk until it finishes, so it falls back to that greedy walk
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class HunterPlanner{
+  static final int UNREACHABLE=Integer.MAX_VALUE/4; //Small enough that adding two distances cannot overflow
+  static final int HELD_KARP_LIMIT=16; //Above this many traps the dynamic programming table gets too large
+  private static final int DEADLINE_CHECK=1023; //The clock is read once every this many plus one masks or search nodes
+
+  final int trapCount;
+  final int[][] distance; //distance[i][j] is the number of steps from trap i to trap j
+  
+  private Deadline deadline=Deadline.NONE;
+  private volatile boolean cutShort; //Set by any task that stops because the deadline passed
+
+  /**
+   * HunterPlanner
+   * Plans over a distance matrix that is already known
+   * @param The number of steps between every pair of traps
+   */
+  HunterPlanner(int[][] distance){
+    this.trapCount=distance.length;
+    this.distance=distance;
+  }
+
+  /**
+   * HunterPlanner
+   * Builds the distance matrix between the traps
+   * @param The graph of the cells the hunter can walk through, with every trap a node, and the grid cells of the traps
+   */
+  HunterPlanner(MazeGraph graph, int[] trapCells){
+    trapCount=trapCells.length;
+    distance=new int[trapCount][trapCount];
+
+    int[] trapOfNode=new int[graph.nodeCount];
+    Arrays.fill(trapOfNode, -1);
+    for (int i=0; i<trapCount; i++){
+      trapOfNode[graph.node(trapCells[i])]=i;
+    }
+
+    //Dijkstra from every trap; the heap holds (steps << 32 | node) and entries that went stale are skipped when popped
+    int[] steps=new int[graph.nodeCount];
+    long[] heap=new long[graph.first[graph.nodeCount]+1];
+    for (int i=0; i<trapCount; i++){
+      Arrays.fill(distance[i], UNREACHABLE);
+      Arrays.fill(steps, UNREACHABLE);
+
+      int origin=graph.node(trapCells[i]);
+      steps[origin]=0;
+      int size=push(heap, 0, origin);
+
+      while (size>0){
+        long top=heap[0];
+        size=pop(heap, size);
+        int v=(int)top;
+        if ((int)(top>>>32)!=steps[v]){
+          continue;
+        }
+        if (trapOfNode[v]>=0){
+          distance[i][trapOfNode[v]]=steps[v];
+        }
+        for (int e=graph.first[v]; e<graph.first[v+1]; e++){
+          int w=graph.target[e];
+          int total=steps[v]+graph.weight[e];
+          if (total<steps[w]){
+            steps[w]=total;
+            size=push(heap, size, ((long)total<<32)|w);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * push
+   * Adds an entry to a binary min-heap
+   * @param The heap, its size and the entry
+   * @return The new size
+   */
+  private static int push(long[] heap, int size, long entry){
+    int i=size;
+    while (i>0){
+      int parent=(i-1)/2;
+      if (heap[parent]<=entry){
+        break;
+      }
+      heap[i]=heap[parent];
+      i=parent;
+    }
+    heap[i]=entry;
+    return size+1;
+  }
+
+  /**
+   * pop
+   * Removes the smallest entry of a binary min-heap
+   * @param The heap and its size
+   * @return The new size
+   */
+  private static int pop(long[] heap, int size){
+    long last=heap[--size];
+    int i=0;
+    while (2*i+1<size){
+      int child=2*i+1;
+      if ((child+1<size) && (heap[child+1]<heap[child])){
+        child+=1;
+      }
+      if (heap[child]>=last){
+        break;
+      }
+      heap[i]=heap[child];
+      i=child;
+    }
+    heap[i]=last;
+    return size;
+  }
+
+  /**
+   * shortestRoute
+   * @return The minimum number of steps to visit every trap starting from any of them, or -1 if some trap cannot be reached
+   */
+  int shortestRoute(){
+    return shortestRoute(Deadline.NONE);
+  }
+
+  /**
+   * shortestRoute
+   * The same, giving up on proving the walk is the shortest once the deadline passes
+   * @param The deadline
+   * @return The number of steps of the shortest walk found, or -1 if some trap cannot be reached
+   */
+  int shortestRoute(Deadline deadline){
+    this.deadline=deadline;
+    cutShort=false;
+    if (trapCount==0){
+      return -1;
+    }
+    int shortest=(trapCount<=HELD_KARP_LIMIT) ? heldKarp() : branchAndBound();
+    return (shortest>=UNREACHABLE) ? -1 : shortest;
+  }
+
+  /**
+   * proven
+   * @return False if the last search was stopped by its deadline, so a shorter walk may exist
+   */
+  boolean proven(){
+    return !cutShort;
+  }
+
+  /**
+   * heldKarp
+   * cost[mask][last] is the shortest walk that visits the traps in mask and ends at trap last
+   * @return The shortest walk through all traps, or the greedy walk if the deadline passes first
+   */
+  int heldKarp(){
+    int full=(1<<trapCount)-1;
+    int[][] cost=new int[1<<trapCount][trapCount];
+    for (int mask=0; mask<=full; mask++){
+      Arrays.fill(cost[mask], UNREACHABLE);
+    }
+    for (int i=0; i<trapCount; i++){
+      cost[1<<i][i]=0;
+    }
+
+    for (int mask=1; mask<=full; mask++){
+      if (((mask&DEADLINE_CHECK)==0) && (deadline.passed())){
+        cutShort=true;
+        return connected() ? greedyRoute() : UNREACHABLE;
+      }
+      for (int last=0; last<trapCount; last++){
+        int current=cost[mask][last];
+        if (current>=UNREACHABLE){
+          continue;
+        }
+        for (int next=0; next<trapCount; next++){
+          if ((mask&(1<<next))==0){
+            int total=current+distance[last][next];
+            if (total<cost[mask|(1<<next)][next]){
+              cost[mask|(1<<next)][next]=total;
+            }
+          }
+        }
+      }
+    }
+
+    int shortest=UNREACHABLE;
+    for (int last=0; last<trapCount; last++){
+      shortest=Math.min(shortest, cost[full][last]);
+    }
+    return shortest;
+  }
+
+  /**
+   * branchAndBound
+   * Tries the orders of traps depth first on the common fork/join pool, one task per starting trap and more for the first-
+   * few choices, so idle threads steal whole subtrees; every task drops an order as soon as it cannot beat the best walk-
+   * found by any task so far
+   * @return The shortest walk through all traps
+   */
+  private int branchAndBound(){
+    return branchAndBound(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * branchAndBound
+   * @param The pool to run the tasks on
+   * @return The shortest walk through all traps
+   */
+  int branchAndBound(ForkJoinPool pool){
+    if (!connected()){
+      return UNREACHABLE; //No walk sets them all
+    }
+
+    AtomicInteger best=new AtomicInteger(greedyRoute());
+    RouteTask[] starts=new RouteTask[trapCount];
+    for (int i=0; i<trapCount; i++){
+      boolean[] visited=new boolean[trapCount];
+      visited[i]=true;
+      starts[i]=new RouteTask(i, 1, 0, visited, best);
+    }
+    pool.invoke(new RecursiveAction(){
+      private static final long serialVersionUID=1L;
+
+      protected void compute(){
+        invokeAll(starts);
+      }
+    });
+    return best.get();
+  }
+
+  /**
+   * connected
+   * @return True if every trap can be reached from every other
+   */
+  private boolean connected(){
+    for (int i=0; i<trapCount; i++){
+      for (int j=0; j<trapCount; j++){
+        if (distance[i][j]>=UNREACHABLE){
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * greedyRoute
+   * Always walks to the nearest trap not yet set, from every starting trap, then shortens the best of these walks with-
+   * 2-opt so the search starts with a good bound
+   * @return The length of the shortened walk
+   */
+  private int greedyRoute(){
+    int shortest=UNREACHABLE;
+    int[] route=null;
+    for (int start=0; start<trapCount; start++){
+      boolean[] visited=new boolean[trapCount];
+      int[] order=new int[trapCount];
+      visited[start]=true;
+      order[0]=start;
+      int steps=0;
+      for (int count=1; count<trapCount; count++){
+        int last=order[count-1];
+        int next=-1;
+        for (int i=0; i<trapCount; i++){
+          if ((!visited[i]) && ((next<0) || (distance[last][i]<distance[last][next]))){
+            next=i;
+          }
+        }
+        visited[next]=true;
+        order[count]=next;
+        steps+=distance[last][next];
+      }
+      if (steps<shortest){
+        shortest=steps;
+        route=order;
+      }
+    }
+    return shortest-twoOpt(route);
+  }
+
+  /**
+   * twoOpt
+   * Reverses parts of the walk for as long as one makes it shorter; the walk has two free ends, so reversing a part-
+   * that reaches an end only changes the one step into it
+   * @param The order of the traps, which is changed in place
+   * @return The number of steps saved
+   */
+  private int twoOpt(int[] route){
+    int saved=0;
+    boolean improved=true;
+    while (improved && (!deadline.passed())){
+      improved=false;
+      for (int i=0; i<trapCount-1; i++){
+        for (int j=i+1; j<trapCount; j++){
+          int before=((i>0) ? distance[route[i-1]][route[i]] : 0)+((j<trapCount-1) ? distance[route[j]][route[j+1]] : 0);
+          int after=((i>0) ? distance[route[i-1]][route[j]] : 0)+((j<trapCount-1) ? distance[route[i]][route[j+1]] : 0);
+          if (after<before){
+            for (int a=i, b=j; a<b; a++, b--){
+              int swap=route[a];
+              route[a]=route[b];
+              route[b]=swap;
+            }
+            saved+=before-after;
+            improved=true;
+          }
+        }
+      }
+    }
+    return saved;
+  }
+
+  /**
+   * lowerBound
+   * A walk from the last trap through all traps left is a spanning tree of them, so it is at least as long as the-
+   * minimum spanning tree, found with Prim's algorithm over the distance matrix
+   * @param The last trap set, the traps set so far, and scratch arrays for the shortest edge from the tree to each trap-
+   * and the traps in the tree, overwritten on every call
+   * @return The length of the minimum spanning tree of the last trap and the traps left
+   */
+  private int lowerBound(int last, boolean[] visited, int[] link, boolean[] inTree){
+    System.arraycopy(visited, 0, inTree, 0, trapCount);
+    System.arraycopy(distance[last], 0, link, 0, trapCount);
+
+    int total=0;
+    while (true){
+      int next=-1;
+      for (int i=0; i<trapCount; i++){
+        if ((!inTree[i]) && ((next<0) || (link[i]<link[next]))){
+          next=i;
+        }
+      }
+      if (next<0){
+        return total;
+      }
+      inTree[next]=true;
+      total+=link[next];
+      for (int i=0; i<trapCount; i++){
+        if ((!inTree[i]) && (distance[next][i]<link[i])){
+          link[i]=distance[next][i];
+        }
+      }
+    }
+  }
+
+  /**
+   * RouteTask
+   * Extends a partial walk; the first few choices become tasks of their own, deeper ones are searched in place
+   * Each task keeps its own scratch arrays, so a node of the search allocates nothing
+   */
+  private class RouteTask extends RecursiveAction{
+    private static final long serialVersionUID=1L;
+    private static final int SPLIT_DEPTH=3; //Walks with fewer traps than this are split into a task per next trap
+
+    private final int last;
+    private final int count;
+    private final int steps;
+    private final boolean[] visited;
+    private final AtomicInteger best;
+    private int[] link;
+    private boolean[] inTree;
+    private int[][] orders; //orders[count] holds the traps left to try after count traps are set
+    private long nodes; //Nodes of the search this task has visited, for reading the clock
+
+    RouteTask(int last, int count, int steps, boolean[] visited, AtomicInteger best){
+      this.last=last;
+      this.count=count;
+      this.steps=steps;
+      this.visited=visited;
+      this.best=best;
+    }
+
+    protected void compute(){
+      link=new int[trapCount];
+      inTree=new boolean[trapCount];
+      orders=new int[trapCount][trapCount];
+      if (count>=SPLIT_DEPTH){
+        extend(last, count, steps, visited);
+        return;
+      }
+      if (prune(last, count, steps, visited)){
+        return;
+      }
+
+      int[] order=orders[count];
+      int size=nearestFirst(last, visited, order);
+      RouteTask[] children=new RouteTask[size];
+      for (int k=0; k<size; k++){
+        boolean[] next=visited.clone();
+        next[order[k]]=true;
+        children[k]=new RouteTask(order[k], count+1, steps+distance[last][order[k]], next, best);
+      }
+      invokeAll(children);
+    }
+
+    private void extend(int last, int count, int steps, boolean[] visited){
+      if (prune(last, count, steps, visited)){
+        return;
+      }
+
+      int[] order=orders[count];
+      int size=nearestFirst(last, visited, order);
+      for (int k=0; k<size; k++){
+        int next=order[k];
+        visited[next]=true;
+        extend(next, count+1, steps+distance[last][next], visited);
+        visited[next]=false;
+      }
+    }
+
+    /**
+     * prune
+     * Records a finished walk, or checks a partial one against the best walk of any task, or stops at the deadline,-
+     * which is read every DEADLINE_CHECK+1 nodes
+     * @param The last trap set, how many traps are set, the steps so far, and the traps set
+     * @return True if there is nothing more to search from here
+     */
+    private boolean prune(int last, int count, int steps, boolean[] visited){
+      Metrics.count(Metrics.CELLS_ENTERED);
+      if (count==trapCount){
+        best.accumulateAndGet(steps, Math::min);
+        Metrics.count(Metrics.LEAVES_REACHED);
+        return true;
+      }
+      if ((cutShort) || (((nodes++&DEADLINE_CHECK)==0) && (deadline.passed()))){
+        cutShort=true;
+        return true;
+      }
+      if (steps+lowerBound(last, visited, link, inTree)>=best.get()){
+        Metrics.count(Metrics.BRANCHES_PRUNED);
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * nearestFirst
+   * Nearer traps are tried first so a good route is found early
+   * @param The last trap set, the traps set, and the array to put the traps left in
+   * @return How many traps are left; they are at the start of the array, nearest first
+   */
+  private int nearestFirst(int last, boolean[] visited, int[] order){
+    int size=0;
+    for (int i=0; i<trapCount; i++){
+      if (!visited[i]){
+        int j=size++;
+        while ((j>0) && (distance[last][order[j-1]]>distance[last][i])){
+          order[j]=order[j-1];
+          j-=1;
+        }
+        order[j]=i;
+      }
+    }
+    return size;
+  }
+}
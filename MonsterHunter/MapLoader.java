@@ -0,0 +1,72 @@
+/* MapLoader.java
+ * Loads a map file straight into a grid by memory-mapping it, without building a String per cell
+ * Rows may have different lengths; the grid is as wide as the longest row and shorter rows are padded with walls,
+ * so a row that lost its right border cannot open a way out of the maze
+ */
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+class MapLoader{
+  /**
+   * load
+   * Maps the file into memory, finds the line breaks, then copies every row into the grid in bulk
+   * @param A string that is the file name of the map file
+   * @return The maze as a grid
+   */
+  static Grid load(String fileName) throws IOException{
+    try (RandomAccessFile file=new RandomAccessFile(fileName, "r"); FileChannel channel=file.getChannel()){
+      long size=channel.size();
+      if (size>Integer.MAX_VALUE){
+        throw new IOException("Map file is too large: "+fileName);
+      }
+      MappedByteBuffer buffer=channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      Metrics.add(Metrics.BYTES_READ, size);
+      int length=(int)size;
+
+      //Finds where every row starts and how long it is, leaving out line breaks and carriage returns
+      int[] rowStart=new int[16];
+      int[] rowLength=new int[16];
+      int rows=0;
+      int width=0;
+      int start=0;
+      for (int i=0; i<=length; i++){
+        if ((i==length) || (buffer.get(i)=='\n')){
+          int end=i;
+          if ((end>start) && (buffer.get(end-1)=='\r')){
+            end-=1;
+          }
+          if ((i<length) || (end>start)){ //A file that ends with a line break has no extra empty row
+            if (rows==rowStart.length){
+              rowStart=Arrays.copyOf(rowStart, rows*2);
+              rowLength=Arrays.copyOf(rowLength, rows*2);
+            }
+            rowStart[rows]=start;
+            rowLength[rows]=end-start;
+            width=Math.max(width, end-start);
+            rows+=1;
+          }
+          start=i+1;
+        }
+      }
+
+      //Blank lines at the end of the file are not part of the maze
+      while ((rows>0) && (rowLength[rows-1]==0)){
+        rows-=1;
+      }
+      if ((rows==0) || (width==0)){
+        throw new IOException("Map file is empty: "+fileName);
+      }
+
+      Grid grid=new Grid(width, rows);
+      Arrays.fill(grid.cells, Grid.WALL);
+      for (int y=0; y<rows; y++){
+        buffer.get(rowStart[y], grid.cells, y*width, rowLength[y]);
+      }
+      return grid;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/* MazeGenerator.java
+ * Writes seeded random mazes in the format of the hand-made maps: "+" corners, "-" and "|" walls, "N" entrance,
+ * "F" exit and "P" potential traps
+ * The same seed, size, loop density and trap count always give the same file
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public final class MazeGenerator{
+  private MazeGenerator(){
+  }
+
+  /**
+   * generate
+   * Carves a perfect maze with an iterative depth-first search, then knocks down extra walls to make loops
+   * The maze has size by size rooms, so the map is 2*size+1 characters on each side
+   * @param The number of rooms on each side, the chance that each remaining inner wall is removed (0 keeps the maze a tree),
+   * the number of potential traps, and the seed
+   * @return The rows of the map
+   */
+  public static char[][] generate(int size, double loopDensity, int trapCount, long seed){
+    if (size<2){
+      throw new IllegalArgumentException("A maze needs at least 2 rooms on each side: "+size);
+    }
+    if ((trapCount<0) || (trapCount>size*size-1)){
+      throw new IllegalArgumentException("Cannot place "+trapCount+" traps in "+size*size+" rooms");
+    }
+    Random random=new Random(seed);
+    int side=2*size+1;
+    char[][] map=new char[side][side];
+
+    //Starts with every wall standing
+    for (int y=0; y<side; y++){
+      for (int x=0; x<side; x++){
+        if ((y%2==0) && (x%2==0)){
+          map[y][x]='+';
+        } else if (y%2==0){
+          map[y][x]='-';
+        } else if (x%2==0){
+          map[y][x]='|';
+        } else {
+          map[y][x]=' ';
+        }
+      }
+    }
+
+    //Depth-first search over the rooms, knocking down the wall to each room it visits first
+    boolean[] visited=new boolean[size*size];
+    int[] stack=new int[size*size];
+    int[] options=new int[4];
+    int top=0;
+    stack[top++]=0;
+    visited[0]=true;
+    while (top>0){
+      int room=stack[top-1];
+      int ry=room/size;
+      int rx=room%size;
+      int count=0;
+      if ((ry>0) && (!visited[room-size])){
+        options[count++]=room-size;
+      }
+      if ((rx<size-1) && (!visited[room+1])){
+        options[count++]=room+1;
+      }
+      if ((ry<size-1) && (!visited[room+size])){
+        options[count++]=room+size;
+      }
+      if ((rx>0) && (!visited[room-1])){
+        options[count++]=room-1;
+      }
+      if (count==0){
+        top-=1;
+        continue;
+      }
+      int next=options[random.nextInt(count)];
+      map[ry+next/size+1][rx+next%size+1]=' '; //The wall between two rooms sits halfway between their map cells
+      visited[next]=true;
+      stack[top++]=next;
+    }
+
+    //Extra openings between neighbouring rooms make loops
+    if (loopDensity>0){
+      for (int y=1; y<side-1; y++){
+        for (int x=1; x<side-1; x++){
+          if ((((map[y][x]=='-') && (x%2==1)) || ((map[y][x]=='|') && (y%2==1))) && (random.nextDouble()<loopDensity)){
+            map[y][x]=' ';
+          }
+        }
+      }
+    }
+
+    //Potential traps go in distinct rooms, never the one the monster starts in
+    int placed=0;
+    while (placed<trapCount){
+      int room=1+random.nextInt(size*size-1);
+      int y=2*(room/size)+1;
+      int x=2*(room%size)+1;
+      if (map[y][x]==' '){
+        map[y][x]='P';
+        placed+=1;
+      }
+    }
+
+    map[1][0]='N';
+    map[side-2][side-1]='F';
+    return map;
+  }
+
+  /**
+   * write
+   * Generates a maze and saves it with the same line breaks as the hand-made maps
+   * @param The file to write, the number of rooms on each side, the loop density, the number of traps, and the seed
+   * @return nothing
+   */
+  public static void write(Path file, int size, double loopDensity, int trapCount, long seed) throws IOException{
+    char[][] map=generate(size, loopDensity, trapCount, seed);
+    StringBuilder text=new StringBuilder(map.length*(map.length+2));
+    for (int y=0; y<map.length; y++){
+      if (y>0){
+        text.append("\r\n");
+      }
+      text.append(map[y]);
+    }
+    Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * main
+   * Writes one maze: size loopDensity trapCount seed file
+   * @param String[] args
+   * @return nothing
+   */
+  public static void main(String[] args) throws IOException{
+    if (args.length!=5){
+      System.err.println("Usage: MazeGenerator size loopDensity trapCount seed file");
+      System.exit(2);
+    }
+    write(Paths.get(args[4]), Integer.parseInt(args[0]), Double.parseDouble(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]));
+  }
+}
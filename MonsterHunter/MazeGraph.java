@@ -0,0 +1,220 @@
+/* MazeGraph.java
+ * The open cells of a grid as an undirected weighted graph, stored in compressed adjacency arrays
+ * Either every cell is a node, or corridors are contracted so only junctions, dead ends and special cells remain
+ * withTerminals adds a super-source joined to every start cell and a super-sink joined to every exit, so a maze with-
+ * several entrances and exits is searched once instead of once per pair
+ */
+
+import java.util.Arrays;
+
+class MazeGraph{
+  final Grid grid;
+  final int nodeCount;
+  final int[] cell; //The grid cell of every node, or -1 for the super-source and super-sink
+  final int[] nodeOf; //The node of every grid cell, or -1 if the cell is not part of the graph
+  
+  //The neighbours of node v are target[first[v]] to target[first[v+1]-1]
+  final int[] first;
+  final int[] target;
+  final int[] weight;
+  
+  final int source; //The super-source, or -1 if the graph has no terminals
+  final int sink; //The super-sink, or -1 if the graph has no terminals
+  private final boolean[] startNode; //Nodes joined to the super-source
+  
+  private MazeGraph(Grid grid, int[] cell, int[] nodeOf, int[] first, int[] target, int[] weight){
+    this(grid, cell, nodeOf, first, target, weight, -1, -1, null);
+  }
+  
+  private MazeGraph(Grid grid, int[] cell, int[] nodeOf, int[] first, int[] target, int[] weight, int source, int sink, boolean[] startNode){
+    this.grid=grid;
+    this.nodeCount=cell.length;
+    this.cell=cell;
+    this.nodeOf=nodeOf;
+    this.first=first;
+    this.target=target;
+    this.weight=weight;
+    this.source=source;
+    this.sink=sink;
+    this.startNode=startNode;
+  }
+  
+  /**
+   * junctions
+   * Makes a graph whose nodes are the junctions, dead ends, cells of the kept types and the kept cells;
+   * every corridor of cells with exactly two passable neighbours between two nodes becomes one edge weighted by its length
+   * @param The grid, a table of the passable cell types, a table of the cell types that are always nodes, and cells that are always nodes
+   * @return The graph
+   */
+  static MazeGraph junctions(Grid grid, boolean[] passable, boolean[] keep, int... keepCells){
+    byte[] cells=grid.cells;
+    int[] degree=new int[cells.length];
+    for (int i=0; i<cells.length; i++){
+      if (passable[cells[i]&0xff]){
+        for (int direction=Grid.UP; direction<=Grid.LEFT; direction++){
+          int next=grid.neighbour(i, direction);
+          if ((next>=0) && (passable[cells[next]&0xff])){
+            degree[i]+=1;
+          }
+        }
+      }
+    }
+    
+    int[] nodeOf=new int[cells.length];
+    Arrays.fill(nodeOf, -1);
+    for (int i=0; i<keepCells.length; i++){
+      if ((keepCells[i]>=0) && (passable[cells[keepCells[i]]&0xff])){
+        nodeOf[keepCells[i]]=0; //Marked for now, numbered below
+      }
+    }
+    int nodeCount=0;
+    for (int i=0; i<cells.length; i++){
+      if ((passable[cells[i]&0xff]) && ((degree[i]!=2) || (keep[cells[i]&0xff]) || (nodeOf[i]==0))){
+        nodeOf[i]=nodeCount++;
+      } else {
+        nodeOf[i]=-1;
+      }
+    }
+    
+    int[] cell=new int[nodeCount];
+    int[] first=new int[nodeCount+1];
+    int[] target=new int[nodeCount*4];
+    int[] weight=new int[nodeCount*4];
+    int edgeCount=0;
+    
+    for (int i=0; i<cells.length; i++){
+      int node=nodeOf[i];
+      if (node<0){
+        continue;
+      }
+      cell[node]=i;
+      first[node]=edgeCount;
+      for (int direction=Grid.UP; direction<=Grid.LEFT; direction++){
+        int previous=i;
+        int current=grid.neighbour(i, direction);
+        if ((current<0) || (!passable[cells[current]&0xff])){
+          continue;
+        }
+        
+        //Follows the corridor until it reaches a node; every corridor cell has exactly one way forward
+        int length=1;
+        while (nodeOf[current]<0){
+          int forward=-1;
+          for (int d=Grid.UP; d<=Grid.LEFT; d++){
+            int next=grid.neighbour(current, d);
+            if ((next>=0) && (next!=previous) && (passable[cells[next]&0xff])){
+              forward=next;
+            }
+          }
+          previous=current;
+          current=forward;
+          length+=1;
+        }
+        target[edgeCount]=nodeOf[current];
+        weight[edgeCount]=length;
+        edgeCount+=1;
+      }
+    }
+    first[nodeCount]=edgeCount;
+    
+    return new MazeGraph(grid, cell, nodeOf, first, Arrays.copyOf(target, edgeCount), Arrays.copyOf(weight, edgeCount));
+  }
+  
+  /**
+   * withTerminals
+   * Adds two nodes: a super-source with an edge to every start cell and a super-sink with an edge to every exit cell
+   * The edges weigh nothing, so a walk from the super-source has the same length as the walk from the start it enters by
+   * @param The grid cells the monster starts on and the grid cells of the exits; cells that are not nodes are left out
+   * @return The graph with the terminals
+   */
+  MazeGraph withTerminals(int[] startCells, int[] exitCells){
+    int source=nodeCount;
+    int sink=nodeCount+1;
+    boolean[] starts=new boolean[nodeCount+2];
+    boolean[] exits=new boolean[nodeCount+2];
+    int startCount=0;
+    int exitCount=0;
+    for (int i=0; i<startCells.length; i++){
+      int v=node(startCells[i]);
+      if ((v>=0) && (!starts[v])){
+        starts[v]=true;
+        startCount+=1;
+      }
+    }
+    for (int i=0; i<exitCells.length; i++){
+      int v=node(exitCells[i]);
+      if ((v>=0) && (!exits[v])){
+        exits[v]=true;
+        exitCount+=1;
+      }
+    }
+    
+    int edges=first[nodeCount]+2*(startCount+exitCount);
+    int[] joinedFirst=new int[nodeCount+3];
+    int[] joinedTarget=new int[edges];
+    int[] joinedWeight=new int[edges];
+    int edgeCount=0;
+    for (int v=0; v<nodeCount; v++){
+      joinedFirst[v]=edgeCount;
+      for (int e=first[v]; e<first[v+1]; e++){
+        joinedTarget[edgeCount]=target[e];
+        joinedWeight[edgeCount]=weight[e];
+        edgeCount+=1;
+      }
+      if (starts[v]){
+        joinedTarget[edgeCount++]=source;
+      }
+      if (exits[v]){
+        joinedTarget[edgeCount++]=sink;
+      }
+    }
+    joinedFirst[source]=edgeCount;
+    for (int v=0; v<nodeCount; v++){
+      if (starts[v]){
+        joinedTarget[edgeCount++]=v;
+      }
+    }
+    joinedFirst[sink]=edgeCount;
+    for (int v=0; v<nodeCount; v++){
+      if (exits[v]){
+        joinedTarget[edgeCount++]=v;
+      }
+    }
+    joinedFirst[sink+1]=edgeCount;
+    
+    int[] joinedCell=Arrays.copyOf(cell, nodeCount+2);
+    joinedCell[source]=-1;
+    joinedCell[sink]=-1;
+    return new MazeGraph(grid, joinedCell, nodeOf, joinedFirst, joinedTarget, joinedWeight, source, sink, starts);
+  }
+  
+  /**
+   * node
+   * @param The index of a grid cell
+   * @return The node of the cell, or -1 if it is off the grid or not part of the graph
+   */
+  int node(int cellIndex){
+    return (cellIndex>=0) ? nodeOf[cellIndex] : -1;
+  }
+  
+  /**
+   * type
+   * @param A node
+   * @return The cell type of the node in the grid
+   */
+  byte type(int node){
+    if (cell[node]<0){
+      return (node==source) ? Grid.ENTRANCE : Grid.EXIT;
+    }
+    return grid.cells[cell[node]];
+  }
+  
+  /**
+   * trap
+   * @param A node
+   * @return True if the node is a potential trap the monster is not already standing on at the start
+   */
+  boolean trap(int node){
+    return (type(node)==Grid.POTENTIAL) && ((startNode==null) || (!startNode[node]));
+  }
+}
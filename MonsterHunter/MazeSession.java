@@ -0,0 +1,732 @@
+/* MazeSession.java
+ * Keeps a solved maze alive between small edits, for an editor that re-solves after every change
+ * The session holds the cells the monster can reach, the cells on some path from an entrance to an exit (the chain of-
+ * blocks of the block-cut tree), the chosen cut, the cells the monster roams before it is caught, and for every trap in-
+ * the cut its distance to every cell; an edit recomputes only what it can change
+ * - An edit the monster cannot reach, before or after, leaves the traps and the capture steps as they were
+ * - An edit that leaves every path from an entrance to an exit as it was keeps the cut; the cells the monster can reach-
+ *   are flooded again only where the edit joined or cut off a region
+ * - Otherwise the cut is found again, and the capture steps only if the cut changed or the edit touched the cells the-
+ *   monster roams
+ * - Opening a cell shortens only the distances that now pass through it, spreading out from the cell
+ * - Closing a cell redoes the distances from a trap only if some cell was reached through it
+ * The answers are the same as solve gives for the edited map without --enumerate
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+
+class MazeSession{
+  private static final int SOURCE=-2; //Where a region hangs if it meets no path, only the entrances
+
+  private final Grid maze;
+  private final int[] exitCells;
+  private final int[] queue;
+  private final int[] seen; //The last flood that reached each cell
+  private int flood;
+
+  private int[] startCells; //Opening a cell next to an entrance adds a start cell
+  private final boolean[] reach; //Cells the monster can reach from the start cells with no traps set
+  private final boolean[] onPath; //Cells on some path from an entrance to an exit
+  private final int[] anchor; //For a reached cell, the cell on a path its region hangs from (itself if on a path) or SOURCE
+  private final boolean[] roamed; //Cells the monster can walk before it steps onto a trap of the cut
+  private int onPathCount;
+  private int[] mandatoryTraps=new int[0];
+  private int[] trapCells=new int[0]; //The minimum cut, in ascending order
+  private int[][] cellDistance=new int[0][]; //cellDistance[i][c] is the number of steps from trap i to cell c
+  private int[][] trapDistance; //The distances between the traps the hunter's walk was last planned over
+  private int monsterSteps;
+  private boolean treeMaze;
+  private int hunterSteps;
+
+  /**
+   * MazeSession
+   * Solves the maze in full once
+   * @param The maze; the session works on its own copy
+   */
+  MazeSession(Grid maze){
+    this.maze=maze.copy();
+    this.exitCells=maze.findAll(Grid.EXIT);
+    this.queue=new int[maze.cells.length];
+    this.seen=new int[maze.cells.length];
+    this.reach=new boolean[maze.cells.length];
+    this.onPath=new boolean[maze.cells.length];
+    this.anchor=new int[maze.cells.length];
+    this.roamed=new boolean[maze.cells.length];
+    solveCut();
+    solveCapture();
+    updateTraps(new int[0]);
+    planHunter();
+  }
+
+  /**
+   * open
+   * @param A string that is the file name of the map file
+   * @return A session on the solved map
+   */
+  static MazeSession open(String fileName) throws IOException{
+    return new MazeSession(MapLoader.load(fileName));
+  }
+
+  /**
+   * openCell
+   * Knocks down a wall
+   * @param The row and column of the cell
+   * @return The answers after the edit
+   */
+  Solution openCell(int y, int x){
+    int cell=maze.index(y,x);
+    if (Grid.MONSTER_PASSABLE[maze.cells[cell]&0xff]){
+      return solution(); //Already open
+    }
+    return edit(cell, Grid.OPEN);
+  }
+
+  /**
+   * closeCell
+   * Puts up a wall, removing any potential trap on the cell
+   * @param The row and column of the cell
+   * @return The answers after the edit
+   */
+  Solution closeCell(int y, int x){
+    int cell=maze.index(y,x);
+    if ((!Grid.MONSTER_PASSABLE[maze.cells[cell]&0xff]) && (!Grid.HUNTER_PASSABLE[maze.cells[cell]&0xff])){
+      return solution(); //Already closed
+    }
+    return edit(cell, Grid.WALL);
+  }
+
+  /**
+   * addTrap
+   * Places a potential trap on an open cell
+   * @param The row and column of the cell
+   * @return The answers after the edit
+   */
+  Solution addTrap(int y, int x){
+    int cell=maze.index(y,x);
+    if (maze.cells[cell]!=Grid.OPEN){
+      throw new IllegalArgumentException("A trap can only be placed on an open cell: "+y+","+x);
+    }
+    return edit(cell, Grid.POTENTIAL);
+  }
+
+  /**
+   * removeTrap
+   * Turns a potential trap back into an open cell
+   * @param The row and column of the cell
+   * @return The answers after the edit
+   */
+  Solution removeTrap(int y, int x){
+    int cell=maze.index(y,x);
+    if (maze.cells[cell]!=Grid.POTENTIAL){
+      throw new IllegalArgumentException("There is no potential trap at "+y+","+x);
+    }
+    return edit(cell, Grid.OPEN);
+  }
+
+  /**
+   * solution
+   * @return The current answers, with the minimum traps set on a copy of the maze
+   */
+  Solution solution(){
+    Grid traps=maze.copy();
+    for (int i=0; i<trapCells.length; i++){
+      traps.cells[trapCells[i]]=Grid.TRAP;
+    }
+    return new Solution(traps, monsterSteps, hunterSteps, treeMaze, mandatoryTraps.clone());
+  }
+
+  /**
+   * edit
+   * Changes one cell and brings the answers up to date
+   * @param The grid cell and its new value
+   * @return The answers after the edit
+   */
+  private Solution edit(int cell, byte value){
+    if ((Arrays.binarySearch(startCells, cell)>=0) || (maze.cells[cell]==Grid.EXIT) || (maze.cells[cell]==Grid.ENTRANCE)){
+      throw new IllegalArgumentException("The entrances, exits and starting cells cannot be edited");
+    }
+    byte previous=maze.cells[cell];
+    if (previous==value){
+      return solution();
+    }
+
+    boolean monsterAffected=touchesReach(cell);
+    maze.cells[cell]=value;
+
+    boolean wasWalkable=Grid.HUNTER_PASSABLE[previous&0xff];
+    boolean walkable=Grid.HUNTER_PASSABLE[value&0xff];
+    if (walkable && (!wasWalkable)){
+      for (int i=0; i<trapCells.length; i++){
+        relaxOpened(cellDistance[i], cell);
+      }
+    } else if (wasWalkable && (!walkable)){
+      for (int i=0; i<trapCells.length; i++){
+        if (reachedThrough(cellDistance[i], cell)){
+          distances(trapCells[i], cellDistance[i]);
+        } else {
+          cellDistance[i][cell]=HunterPlanner.UNREACHABLE;
+        }
+      }
+    }
+
+    if ((monsterAffected) && (!updatePaths(cell, previous, value))){
+      int[] before=trapCells;
+      boolean roamedNear=touchesRoamed(cell); //Taken before the cells the monster can reach are flooded again
+      solveCut();
+      if ((roamedNear) || (!Arrays.equals(before, trapCells))){
+        solveCapture();
+      }
+      updateTraps(before);
+    }
+    planHunter();
+    return solution();
+  }
+
+  /**
+   * touchesReach
+   * @param A grid cell
+   * @return True if the monster can reach the cell or one next to it, or the cell is next to an entrance, so changing it-
+   * can change what the monster sees
+   */
+  private boolean touchesReach(int cell){
+    if (reach[cell]){
+      return true;
+    }
+    for (int direction=0; direction<4; direction++){
+      int next=maze.neighbour(cell, direction);
+      if ((next>=0) && ((reach[next]) || (maze.cells[next]==Grid.ENTRANCE))){
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * touchesRoamed
+   * @param A grid cell
+   * @return True if the monster roams the cell or one next to it before it is caught, so changing it can change the-
+   * capture steps
+   */
+  private boolean touchesRoamed(int cell){
+    if (roamed[cell]){
+      return true;
+    }
+    for (int direction=0; direction<4; direction++){
+      int next=maze.neighbour(cell, direction);
+      if ((next>=0) && (roamed[next])){
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * updatePaths
+   * Brings the monster's side up to date without building its graph again, where the edit provably leaves every path-
+   * from an entrance to an exit as it was, so the blocks, the dominating traps and the cut stay as they were:
+   * - a cell off every path turns between open and potential trap, or is closed; a region hangs from one cell of a path,-
+   *   so no path can pass through it
+   * - a cell is opened whose neighbours the monster reaches all hang from the same cell, and that joins no exit
+   * - a potential trap on a path that is not in the cut is removed; every cut stays a cut of the same size and no new-
+   *   one appears, so the lowest is the same
+   * Paths that end on a trap of the cut also run along the paths to the exits, so the capture steps stay as they were;-
+   * only whether the roamed cells form a tree has to be counted again when they change
+   * Cells off every path that carry flow are not enough, since closing one can make a lower cut of the same size
+   * @param The edited cell, its old value and its new value
+   * @return True if the answers are up to date, false if the monster's side has to be solved again
+   */
+  private boolean updatePaths(int cell, byte previous, byte value){
+    boolean wasPassable=Grid.MONSTER_PASSABLE[previous&0xff];
+    boolean passable=Grid.MONSTER_PASSABLE[value&0xff];
+    if ((wasPassable) && (passable)){
+      if (!onPath[cell]){
+        return true;
+      }
+      if ((previous!=Grid.POTENTIAL) || (Arrays.binarySearch(trapCells, cell)>=0)){
+        return false;
+      }
+      onPathCount-=1;
+      mandatoryTraps=without(mandatoryTraps, cell);
+      return true;
+    }
+
+    if (wasPassable){
+      if (onPath[cell]){
+        return false;
+      }
+      boolean wasRoamed=roamed[cell];
+      if (reach[cell]){
+        cutOff(cell);
+      }
+      if (wasRoamed){
+        treeMaze=roam();
+      }
+      return true;
+    }
+
+    return joinRegion(cell);
+  }
+
+  /**
+   * without
+   * @param An array of grid cells and a cell
+   * @return A copy of the array without the cell, in the same order
+   */
+  private static int[] without(int[] cells, int cell){
+    int[] kept=new int[cells.length];
+    int count=0;
+    for (int i=0; i<cells.length; i++){
+      if (cells[i]!=cell){
+        kept[count++]=cells[i];
+      }
+    }
+    return Arrays.copyOf(kept, count);
+  }
+
+  /**
+   * joinRegion
+   * Adds an opened cell, and the cells the monster reaches through it, to the region its reached neighbours hang from
+   * @param The opened grid cell
+   * @return True if the cell joins at most one region and no exit, so no path is new; false if nothing was changed
+   */
+  private boolean joinRegion(int opened){
+    int hang=-1;
+    for (int direction=0; direction<4; direction++){
+      int next=maze.neighbour(opened, direction);
+      if (next<0){
+        continue;
+      }
+      if (maze.cells[next]==Grid.ENTRANCE){
+        return false; //The cell becomes a start cell
+      }
+      if (reach[next]){
+        if ((hang!=-1) && (anchor[next]!=hang)){
+          return false; //The cell joins regions that hang from different cells, which can make a new path
+        }
+        hang=anchor[next];
+      }
+    }
+    if (hang==-1){
+      return true; //The monster does not reach the cell
+    }
+
+    flood+=1;
+    int size=0;
+    queue[size++]=opened;
+    seen[opened]=flood;
+    for (int i=0; i<size; i++){
+      if (maze.cells[queue[i]]==Grid.EXIT){
+        return false; //A new exit is reached
+      }
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(queue[i], direction);
+        if ((next>=0) && (!reach[next]) && (seen[next]!=flood) && (Grid.MONSTER_PASSABLE[maze.cells[next]&0xff])){
+          seen[next]=flood;
+          queue[size++]=next;
+        }
+      }
+    }
+    for (int i=0; i<size; i++){
+      reach[queue[i]]=true;
+      anchor[queue[i]]=hang;
+    }
+    if ((trapCells.length>0) && (touchesRoamed(opened))){
+      treeMaze=roam();
+    }
+    return true;
+  }
+
+  /**
+   * cutOff
+   * Closing a cell off every path can only cut off part of the region it hung in, so the region is flooded again from-
+   * where it hangs and the cells it no longer holds are dropped
+   * @param The closed grid cell
+   * @return nothing
+   */
+  private void cutOff(int closed){
+    int hang=anchor[closed];
+    reach[closed]=false;
+    anchor[closed]=-1;
+
+    flood+=1;
+    int size=0;
+    if (hang==SOURCE){
+      for (int i=0; i<startCells.length; i++){
+        if ((reach[startCells[i]]) && (anchor[startCells[i]]==SOURCE)){
+          seen[startCells[i]]=flood;
+          queue[size++]=startCells[i];
+        }
+      }
+    } else {
+      seen[hang]=flood;
+      queue[size++]=hang;
+    }
+    floodRegion(size, hang);
+
+    //Whatever is left next to the closed cell was reached only through it
+    for (int direction=0; direction<4; direction++){
+      int next=maze.neighbour(closed, direction);
+      if ((next>=0) && (reach[next]) && (anchor[next]==hang) && (seen[next]!=flood)){
+        seen[next]=flood;
+        queue[0]=next;
+        size=floodRegion(1, hang);
+        for (int i=0; i<size; i++){
+          reach[queue[i]]=false;
+          anchor[queue[i]]=-1;
+        }
+      }
+    }
+  }
+
+  /**
+   * floodRegion
+   * Spreads from the cells in the queue over the reached cells that hang from the same cell, marking them with the-
+   * current flood
+   * @param How many cells are in the queue, and where the region hangs
+   * @return How many cells are in the queue afterwards
+   */
+  private int floodRegion(int size, int hang){
+    for (int i=0; i<size; i++){
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(queue[i], direction);
+        if ((next>=0) && (reach[next]) && (anchor[next]==hang) && (seen[next]!=flood)){
+          seen[next]=flood;
+          queue[size++]=next;
+        }
+      }
+    }
+    return size;
+  }
+
+  /**
+   * solveCut
+   * Redoes the paths of the monster's side: the cells it can reach, the blocks on its paths, the dominating traps and-
+   * the minimum cut
+   * @return nothing
+   */
+  private void solveCut(){
+    startCells=maze.startCells();
+    MazeGraph monsterGraph=MazeGraph.junctions(maze, Grid.MONSTER_PASSABLE, Grid.MONSTER_NODES, startCells).withTerminals(startCells, exitCells);
+    BlockCutTree blocks=new BlockCutTree(monsterGraph);
+    onPathCount=blocks.trapsOnPath().length;
+    mandatoryTraps=blocks.dominatingTraps();
+    if (mandatoryTraps.length>0){
+      trapCells=new int[]{BlockCutTree.lowestTrap(mandatoryTraps)};
+    } else {
+      trapCells=new TrapCutSolver(monsterGraph).minimumCut();
+    }
+    markPaths(monsterGraph, blocks.onPath());
+  }
+
+  /**
+   * markPaths
+   * Floods the cells the monster can reach, marks those on some path, and gives every other reached cell the cell its-
+   * region hangs from
+   * A cell that is not a node lies in a corridor between two nodes, and is on a path exactly when the two are different-
+   * and both on a path
+   * @param The monster's graph and which of its nodes are on a path
+   * @return nothing
+   */
+  private void markPaths(MazeGraph graph, boolean[] nodeOnPath){
+    Arrays.fill(reach, false);
+    Arrays.fill(onPath, false);
+    Arrays.fill(anchor, -1);
+    int size=0;
+    for (int i=0; i<startCells.length; i++){
+      if ((!reach[startCells[i]]) && (Grid.MONSTER_PASSABLE[maze.cells[startCells[i]]&0xff])){
+        reach[startCells[i]]=true;
+        queue[size++]=startCells[i];
+      }
+    }
+    for (int i=0; i<size; i++){
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(queue[i], direction);
+        if ((next>=0) && (!reach[next]) && (Grid.MONSTER_PASSABLE[maze.cells[next]&0xff])){
+          reach[next]=true;
+          queue[size++]=next;
+        }
+      }
+    }
+    int[] reached=Arrays.copyOf(queue, size);
+
+    flood+=1;
+    for (int i=0; i<reached.length; i++){
+      int cell=reached[i];
+      int node=graph.node(cell);
+      if (node>=0){
+        onPath[cell]=nodeOnPath[node];
+      } else if (seen[cell]!=flood){
+        markCorridor(graph, nodeOnPath, cell);
+      }
+    }
+
+    for (int i=0; i<reached.length; i++){
+      if (onPath[reached[i]]){
+        anchor[reached[i]]=reached[i];
+      }
+    }
+    for (int i=0; i<reached.length; i++){
+      int cell=reached[i];
+      if (onPath[cell]){
+        hangRegions(cell, cell);
+      }
+    }
+    for (int i=0; i<reached.length; i++){
+      if (anchor[reached[i]]==-1){
+        hangRegions(reached[i], SOURCE);
+      }
+    }
+  }
+
+  /**
+   * markCorridor
+   * @param The monster's graph, which of its nodes are on a path, and a cell of a corridor not yet marked
+   * @return nothing
+   */
+  private void markCorridor(MazeGraph graph, boolean[] nodeOnPath, int start){
+    int size=0;
+    queue[size++]=start;
+    seen[start]=flood;
+    int end=-1;
+    boolean between=true; //Both ends are nodes on a path, and they are different
+    for (int i=0; i<size; i++){
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(queue[i], direction);
+        if ((next<0) || (!Grid.MONSTER_PASSABLE[maze.cells[next]&0xff])){
+          continue;
+        }
+        int node=graph.node(next);
+        if (node>=0){
+          between&=nodeOnPath[node] && (next!=end);
+          end=next;
+        } else if (seen[next]!=flood){
+          seen[next]=flood;
+          queue[size++]=next;
+        }
+      }
+    }
+    for (int i=0; i<size; i++){
+      onPath[queue[i]]=between;
+    }
+  }
+
+  /**
+   * hangRegions
+   * Gives the reached cells off every path next to a cell, and all cells joined to them off every path, the same anchor
+   * @param The cell to start from and the anchor
+   * @return nothing
+   */
+  private void hangRegions(int from, int hang){
+    int size=0;
+    if (anchor[from]==-1){
+      anchor[from]=hang;
+    }
+    queue[size++]=from;
+    for (int i=0; i<size; i++){
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(queue[i], direction);
+        if ((next>=0) && (reach[next]) && (anchor[next]==-1)){
+          anchor[next]=hang;
+          queue[size++]=next;
+        }
+      }
+    }
+  }
+
+  /**
+   * solveCapture
+   * Redoes the capture steps on the maze with the cut set
+   * @return nothing
+   */
+  private void solveCapture(){
+    if (trapCells.length==0){
+      Arrays.fill(roamed, false);
+      treeMaze=false; //No path ends in a capture, so nothing is searched, as in solve
+      monsterSteps=0;
+      return;
+    }
+    roam();
+    Results results=new Results(null);
+    MazeGraph captureGraph=MazeGraph.junctions(solution().traps, Grid.CAPTURE_PASSABLE, Grid.TRAP_NODES, startCells).withTerminals(startCells, new int[0]);
+    treeMaze=CaptureSearch.run(captureGraph, results);
+    monsterSteps=results.maxMonsterSteps();
+  }
+
+  /**
+   * roam
+   * Floods the cells the monster can walk before it steps onto a trap of the cut, counting edges as the tree traversal-
+   * of CaptureSearch does: with the start cells joined to one source, the region is a tree exactly when it has one edge-
+   * fewer than cells; joining corridors into single edges takes away as many cells as edges, so the count is the same
+   * @return True if the region is a tree
+   */
+  private boolean roam(){
+    Arrays.fill(roamed, false);
+    flood+=1;
+    int size=0;
+    for (int i=0; i<startCells.length; i++){
+      if ((seen[startCells[i]]!=flood) && (Grid.MONSTER_PASSABLE[maze.cells[startCells[i]]&0xff])){
+        seen[startCells[i]]=flood;
+        queue[size++]=startCells[i];
+      }
+    }
+    int edges=size; //One from the source to every start cell
+    int edgeEnds=0; //Ends of edges between two roamed cells; each edge is seen from both of them
+    for (int i=0; i<size; i++){
+      int cell=queue[i];
+      if (Arrays.binarySearch(trapCells, cell)>=0){
+        continue; //The monster is caught here
+      }
+      roamed[cell]=true;
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(cell, direction);
+        if ((next<0) || (!Grid.MONSTER_PASSABLE[maze.cells[next]&0xff])){
+          continue;
+        }
+        if (Arrays.binarySearch(trapCells, next)>=0){
+          edges+=1; //Seen only from this side
+        } else {
+          edgeEnds+=1;
+        }
+        if (seen[next]!=flood){
+          seen[next]=flood;
+          queue[size++]=next;
+        }
+      }
+    }
+    return edges+edgeEnds/2==size;
+  }
+
+  /**
+   * updateTraps
+   * Keeps the distances of traps that are still in the cut and measures them for traps that are new to it
+   * @param The cut before the monster's side was redone
+   * @return nothing
+   */
+  private void updateTraps(int[] before){
+    int[][] rows=new int[trapCells.length][];
+    for (int i=0; i<trapCells.length; i++){
+      int old=Arrays.binarySearch(before, trapCells[i]);
+      if (old>=0){
+        rows[i]=cellDistance[old];
+      } else {
+        rows[i]=new int[maze.cells.length];
+        distances(trapCells[i], rows[i]);
+      }
+    }
+    cellDistance=rows;
+  }
+
+  /**
+   * planHunter
+   * Plans the hunter's walk over the distances between the traps, with the same special cases as solve; the walk is-
+   * only planned again when those distances changed
+   * @return nothing
+   */
+  private void planHunter(){
+    if ((onPathCount==1) || (trapCells.length==1)){
+      hunterSteps=0; //If there is only one trap, the number of steps to set all traps is zero
+      trapDistance=null;
+      return;
+    }
+    int[][] distance=new int[trapCells.length][trapCells.length];
+    for (int i=0; i<trapCells.length; i++){
+      for (int j=0; j<trapCells.length; j++){
+        distance[i][j]=cellDistance[i][trapCells[j]];
+      }
+    }
+    if (!Arrays.deepEquals(distance, trapDistance)){
+      hunterSteps=new HunterPlanner(distance).shortestRoute();
+      trapDistance=distance;
+    }
+  }
+
+  /**
+   * walkable
+   * The hunter walks the maze with the traps set, never through an entrance or exit
+   * @param A grid cell
+   * @return True if the hunter can step on the cell
+   */
+  private boolean walkable(int cell){
+    return Grid.HUNTER_PASSABLE[maze.cells[cell]&0xff];
+  }
+
+  /**
+   * distances
+   * Breadth-first search over the cells from a trap
+   * @param The grid cell of the trap and the row to fill
+   * @return nothing
+   */
+  private void distances(int origin, int[] row){
+    Arrays.fill(row, HunterPlanner.UNREACHABLE);
+    row[origin]=0;
+    int size=0;
+    queue[size++]=origin;
+    for (int i=0; i<size; i++){
+      int cell=queue[i];
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(cell, direction);
+        if ((next>=0) && (row[next]==HunterPlanner.UNREACHABLE) && (walkable(next))){
+          row[next]=row[cell]+1;
+          queue[size++]=next;
+        }
+      }
+    }
+  }
+
+  /**
+   * relaxOpened
+   * Gives a newly opened cell its distance, then spreads out only to the cells it brings closer
+   * @param The row of distances and the opened grid cell
+   * @return nothing
+   */
+  private void relaxOpened(int[] row, int opened){
+    if (!walkable(opened)){
+      return;
+    }
+    int best=HunterPlanner.UNREACHABLE;
+    for (int direction=0; direction<4; direction++){
+      int next=maze.neighbour(opened, direction);
+      if ((next>=0) && (row[next]<HunterPlanner.UNREACHABLE) && (walkable(next))){
+        best=Math.min(best, row[next]+1);
+      }
+    }
+    if (best>=row[opened]){
+      return;
+    }
+
+    row[opened]=best;
+    int size=0;
+    queue[size++]=opened;
+    for (int i=0; i<size; i++){
+      int cell=queue[i];
+      for (int direction=0; direction<4; direction++){
+        int next=maze.neighbour(cell, direction);
+        if ((next>=0) && (row[cell]+1<row[next]) && (walkable(next))){
+          row[next]=row[cell]+1;
+          queue[size++]=next;
+        }
+      }
+    }
+  }
+
+  /**
+   * reachedThrough
+   * A closed cell can only lengthen the distances of cells that a shortest path reached through it,
+   * and those are next to it and one step farther
+   * @param The row of distances and the closed grid cell
+   * @return True if the row has to be measured again
+   */
+  private boolean reachedThrough(int[] row, int closed){
+    if (row[closed]>=HunterPlanner.UNREACHABLE){
+      return false;
+    }
+    for (int direction=0; direction<4; direction++){
+      int next=maze.neighbour(closed, direction);
+      if ((next>=0) && (row[next]==row[closed]+1)){
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,212 @@
+/* Metrics.java
+ * Counters for the hot paths of the solvers and the time spent in each phase of solve
+ * They are only kept when the JVM is started with -Dmonsterhunter.metrics=true; the flag is a constant, so when it is-
+ * off the JIT removes every call to count, add and phase
+ * The counters are LongAdders, so threads of the batch and the parallel searches do not contend on one value
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+class Metrics{
+  static final boolean ENABLED=Boolean.getBoolean("monsterhunter.metrics");
+  
+  //Counters
+  static final int MAPS_SOLVED=0;
+  static final int CELLS_ENTERED=1; //Cells or nodes entered by a search, the calls of the original recursion
+  static final int GRID_COPIES=2;
+  static final int LEAVES_REACHED=3; //Results reported: the exit, a trap, or a finished hunter walk
+  static final int BRANCHES_PRUNED=4;
+  static final int COMBINATIONS_TESTED=5;
+  static final int BYTES_READ=6;
+  static final int BYTES_WRITTEN=7;
+  private static final String[] COUNTER_NAMES={"maps solved", "cells entered", "grid copies", "leaves reached",
+                                               "branches pruned", "combinations tested", "bytes read", "bytes written"};
+  
+  //Phases of solve
+  static final int LOAD=0;
+  static final int ON_PATH=1;
+  static final int TRAPS=2;
+  static final int CAPTURE=3;
+  static final int HUNTER=4;
+  static final int REPORT=5;
+  private static final String[] PHASE_NAMES={"load", "on-path traps", "minimum traps", "capture steps", "hunter steps", "report"};
+  
+  private static final LongAdder[] counters=adders(COUNTER_NAMES.length);
+  private static final LongAdder[] phaseNanos=adders(PHASE_NAMES.length);
+  private static boolean registered=false;
+  
+  private static LongAdder[] adders(int count){
+    LongAdder[] adders=new LongAdder[count];
+    for (int i=0; i<count; i++){
+      adders[i]=new LongAdder();
+    }
+    return adders;
+  }
+  
+  /**
+   * count
+   * @param The counter to add one to
+   * @return nothing
+   */
+  static void count(int counter){
+    if (ENABLED){
+      counters[counter].increment();
+    }
+  }
+  
+  /**
+   * add
+   * @param The counter and the amount to add to it
+   * @return nothing
+   */
+  static void add(int counter, long amount){
+    if (ENABLED){
+      counters[counter].add(amount);
+    }
+  }
+  
+  /**
+   * start
+   * @return The time a phase starts, to pass to phase
+   */
+  static long start(){
+    return ENABLED ? System.nanoTime() : 0L;
+  }
+  
+  /**
+   * phase
+   * Adds the time since start to a phase
+   * @param The phase and the time it started
+   * @return nothing
+   */
+  static void phase(int phase, long start){
+    if (ENABLED){
+      phaseNanos[phase].add(System.nanoTime()-start);
+    }
+  }
+  
+  static long get(int counter){
+    return counters[counter].sum();
+  }
+  
+  static long millis(int phase){
+    return TimeUnit.NANOSECONDS.toMillis(phaseNanos[phase].sum());
+  }
+  
+  /**
+   * reset
+   * @return nothing
+   */
+  static void reset(){
+    for (int i=0; i<counters.length; i++){
+      counters[i].reset();
+    }
+    for (int i=0; i<phaseNanos.length; i++){
+      phaseNanos[i].reset();
+    }
+  }
+  
+  /**
+   * register
+   * Publishes the counters on the platform MBean server, once per JVM, if they are kept at all
+   * @return nothing
+   */
+  static synchronized void register() throws Exception{
+    if ((!ENABLED) || (registered)){
+      return;
+    }
+    ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName("monsterhunter:type=Metrics"));
+    registered=true;
+  }
+  
+  /**
+   * report
+   * @return Every counter and the time of every phase, one per line
+   */
+  static String report(){
+    if (!ENABLED){
+      return "Metrics are off; start the JVM with -Dmonsterhunter.metrics=true";
+    }
+    StringBuilder report=new StringBuilder("Metrics");
+    for (int i=0; i<COUNTER_NAMES.length; i++){
+      report.append(System.lineSeparator()).append(COUNTER_NAMES[i]).append(": ").append(get(i));
+    }
+    for (int i=0; i<PHASE_NAMES.length; i++){
+      report.append(System.lineSeparator()).append(PHASE_NAMES[i]).append(" ms: ").append(millis(i));
+    }
+    return report.toString();
+  }
+  
+  /**
+   * Bean
+   * The MXBean that reads the counters
+   */
+  private static class Bean implements MetricsMXBean{
+    public boolean isEnabled(){
+      return ENABLED;
+    }
+    
+    public long getMapsSolved(){
+      return get(MAPS_SOLVED);
+    }
+    
+    public long getCellsEntered(){
+      return get(CELLS_ENTERED);
+    }
+    
+    public long getGridCopies(){
+      return get(GRID_COPIES);
+    }
+    
+    public long getLeavesReached(){
+      return get(LEAVES_REACHED);
+    }
+    
+    public long getBranchesPruned(){
+      return get(BRANCHES_PRUNED);
+    }
+    
+    public long getCombinationsTested(){
+      return get(COMBINATIONS_TESTED);
+    }
+    
+    public long getBytesRead(){
+      return get(BYTES_READ);
+    }
+    
+    public long getBytesWritten(){
+      return get(BYTES_WRITTEN);
+    }
+    
+    public long getLoadMillis(){
+      return millis(LOAD);
+    }
+    
+    public long getOnPathMillis(){
+      return millis(ON_PATH);
+    }
+    
+    public long getTrapsMillis(){
+      return millis(TRAPS);
+    }
+    
+    public long getCaptureMillis(){
+      return millis(CAPTURE);
+    }
+    
+    public long getHunterMillis(){
+      return millis(HUNTER);
+    }
+    
+    public long getReportMillis(){
+      return millis(REPORT);
+    }
+    
+    public void reset(){
+      Metrics.reset();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+/* MetricsMXBean.java
+ * The counters of Metrics as seen over JMX, under monsterhunter:type=Metrics
+ */
+
+public interface MetricsMXBean{
+  boolean isEnabled();
+  
+  long getMapsSolved();
+  long getCellsEntered();
+  long getGridCopies();
+  long getLeavesReached();
+  long getBranchesPruned();
+  long getCombinationsTested();
+  long getBytesRead();
+  long getBytesWritten();
+  
+  long getLoadMillis();
+  long getOnPathMillis();
+  long getTrapsMillis();
+  long getCaptureMillis();
+  long getHunterMillis();
+  long getReportMillis();
+  
+  /**
+   * reset
+   * Sets every counter back to zero
+   * @return nothing
+   */
+  void reset();
+}
@@ -5,9 +5,8 @@
  */
 
 import java.io.File;
-import java.io.PrintWriter;
-import java.io.FileWriter;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 
 class MonsterHunter{
   /**
@@ -19,6 +18,7 @@ class MonsterHunter{
   public static String[][] readFile(String fileName) throws Exception {
     File myFile = new File(fileName);
     Scanner input = new Scanner(myFile);
+    Metrics.add(Metrics.BYTES_READ, myFile.length());
     
     String[][] array;
     
@@ -49,526 +49,340 @@ class MonsterHunter{
   
   /**
    * move
-   * This method is a recursive function where the monster moves around on a 2D array
-   * @param The 2D array to travel on, the starting y-coordinate, the starting x-coordinate, a 2D array of all traps-
-   * on path, which mode is being used, and the number of steps taken.
+   * The monster moves around on the grid, trying every path from the starting cell
+   * The search runs on SearchEngine's explicit stack, so long paths cannot overflow the thread stack
+   * @param The grid to travel on, the index of the starting cell, a grid of all traps-
+   * on path, which mode is being used, the number of steps taken, and the sink that receives the results.
    * Mode 1 finds the traps on the path, mode 2 finds the minimum number of traps, mode 3 finds the number of steps-
    * the monster takes before getting trapped (corresponds to levels 3, 4, 4+ respectively)
    * @return nothing
    */
-  public static void move(String [][] array, int yCoordinate, int xCoordinate, String[][] trapsOnPath, int mode, int steps)throws Exception{
-    
-    //Makes a copy of the array
-    String[][]copy=new String[array.length][array.length];
-    for (int i=0; i<array.length;i++){
-      for (int j=0; j<array.length;j++){
-        copy[i][j]=array[i][j];
-      }
-    }
-    
-    int y=yCoordinate;
-    int x=xCoordinate;
-    
-    if((mode==3) &&(copy[y][x].equals("T"))){ //In mode 3, the number of monster steps is counted 
-      appendListSteps(steps); //Will append the number of steps to a file once a monster reaches a trap
-      return;
-    }
-    
-    if((mode!=3) && (copy[y][x].equals("F"))){ //In mode 3, the recursive call ends at a trap, not "F", so this would be skipped
-      if (mode!=1){ //Mode 1 does not append to the file with the blocked array, so this would be skipped
-        appendBlockCombos("Passed Through"); //Appends to signify the array was not successfully blocked
-      }
-      
-      //Copies all the traps on path to a file for later use; unnecessary traps are left as is
-      for (int i=0; i<copy.length;i++){
-        for (int j=0; j<copy.length;j++){
-          if (copy[i][j].equals("T")){
-            trapsOnPath[i][j]="T";
-          }
-        }
-      }
-      
-      writeSolution(trapsOnPath);
-      return;
-    }
-    
-    if (copy[y][x].equals(" ")){ //Leaves breadcrumbs to prevent backtracking
-      copy[y][x]=".";
-    } else if ((copy[y][x].equals("P")) && (mode!=3)){ //In mode 3, P's are passible and should not be turned into traps
-      copy[y][x]="T";
-    }
-    
-    //In mode 3 where checking the maximum number of steps the monster should take before it gets trapped, the monster can move onto a trap
-    if (mode==3){
-      if (copy[y-1][x].equals("T")){
-        move(copy, y-1,x,trapsOnPath, mode, steps+1);
-      }
-      if (copy[y][x+1].equals("T")){
-        move(copy,y,x+1, trapsOnPath,  mode, steps+1);
-      }
-      if (copy[y+1][x].equals("T")){
-        move(copy, y+1,x, trapsOnPath, mode, steps+1);
-      }
-      if (copy[y][x-1].equals("T")) {
-        move(copy, y,x-1, trapsOnPath, mode, steps+1);
-      }
-    }
-    
-    //Checks all four directions for positions to move 
-    if ((copy[y-1][x].equals(" ")) || (copy[y-1][x].equals("F")) || (copy[y-1][x].equals("P"))){
-      move(copy, y-1,x, trapsOnPath, mode, steps+1);
-    }
-    if ((copy[y][x+1].equals(" ")) || (copy[y][x+1].equals("F")) || (copy[y][x+1].equals("P"))){
-      move(copy,y,x+1, trapsOnPath, mode, steps+1);
-    }
-    if ((copy[y+1][x].equals(" ")) || (copy[y+1][x].equals("F")) || (copy[y+1][x].equals("P"))){
-      move(copy, y+1,x, trapsOnPath, mode, steps+1);
-    }
-    if ((copy[y][x-1].equals(" ")) || (copy[y][x-1].equals("F")) || (copy[y][x-1].equals("P"))) {
-      move(copy, y,x-1, trapsOnPath, mode, steps+1);
-    }
+  public static void move(Grid grid, int cell, Grid trapsOnPath, int mode, int steps, ResultSink sink)throws Exception{
+    SearchEngine.monster(grid, cell, trapsOnPath, mode, steps, sink).run(Long.MAX_VALUE);
   }
   
   
   /**
    * moveHunter
-   * This method is a recursive function where the hunter moves around on a 2D array, finding the minimum steps to set all traps
-   * @param The 2D array to travel on, the starting y-coordinate, the starting x-coordinate,
-   * the number of steps, the number of traps left to set, the trapCount required for the readListSteps method, and the mode
+   * The hunter moves around on the grid, finding the minimum steps to set all traps
+   * The search runs on SearchEngine's explicit stack; breadcrumbs wiped at a trap are restored from the grid's undo stack
+   * @param The grid to travel on, the index of the starting cell,
+   * the number of steps, the number of traps left to set, the mode, and the results so far
    * Mode 1 disables backtracking
    * Mode 2 allows backtracking
    * @return nothing
    */
-  public static void moveHunter(String [][] array, int yCoordinate, int xCoordinate,  int steps, int trapsleft, int trapCount, int mode) throws Exception{
-    
-    //Makes a copy of the array
-    String[][]copy=new String[array.length][array.length];
-    for (int i=0; i<array.length;i++){
-      for (int j=0; j<array.length;j++){
-        copy[i][j]=array[i][j];
-      }
-    }
-    
-    int y=yCoordinate;
-    int x=xCoordinate;
-    
-    if(copy[y][x].equals("T")){ 
-      copy[y][x]=" "; //The trap is removed when it is reached
-      trapsleft-=1;
-      
-      if (mode==2){ 
-        if (steps >= (readListSteps(trapCount, "monsterSteps")) ){ //To increase efficiency, when the number of steps with backtracking is greater than the minimum steps without backtracking, the function terminates
-          return;
-        }
-        
-        for (int j=0; j<copy.length ;j++){ //Deletes the bread crumbs
-          for (int k=0; k<copy.length;k++){
-            if (copy[j][k]=="."){
-              copy[j][k]=" ";
-            }
-          }
-        }
-      }
-      
-      if(trapsleft==0){
-        appendListSteps(steps);//Append the number of steps to set a trap to a file
-        return;
-      }
-    }
-    
-    if (copy[y][x].equals(" ")){ //Leaves breadcrumbs
-      copy[y][x]=".";
-    }
-    
-    //Checks all four directions for positions to move
-    if ((copy[y-1][x].equals(" ")) || (copy[y-1][x].equals("T")) || (copy[y-1][x].equals("P"))){
-      moveHunter(copy, y-1,x, steps+1,trapsleft,trapCount, mode);
-    }
-    if ((copy[y][x+1].equals(" ")) || (copy[y][x+1].equals("T")) || (copy[y][x+1].equals("P"))){
-      moveHunter(copy,y,x+1,  steps+1,trapsleft,trapCount, mode);
-    }
-    if ((copy[y+1][x].equals(" ")) || (copy[y+1][x].equals("T")) || (copy[y+1][x].equals("P"))){
-      moveHunter(copy, y+1,x,   steps+1,trapsleft,trapCount, mode);
-    }
-    if ((copy[y][x-1].equals(" ")) || (copy[y][x-1].equals("T")) || (copy[y][x-1].equals("P"))) {
-      moveHunter(copy, y,x-1,    steps+1,trapsleft, trapCount, mode);
-    }
+  public static void moveHunter(Grid grid, int cell, int steps, int trapsleft, int mode, Results results) throws Exception{
+    SearchEngine.hunter(grid, cell, steps, trapsleft, mode, results).run(Long.MAX_VALUE);
   }
   
   
   /**
-   * writeSolution
-   * Takes an array and outputs it into solution.txt
-   * @param A 2D array that is the maze
-   * @return nothing
+   * hasOption
+   * Checks whether an option was given on the command line
+   * @param The command line arguments and the option to look for
+   * @return True if the option is present
    */
-  public static void writeSolution(String[][] array) throws Exception{
-    File myFile=new File("solution.txt");
-    
-    PrintWriter output = new PrintWriter(myFile);
-    
-    for (int f=0; f<array.length;f++){
-      for (int g=0; g<array.length;g++){
-        output.print(array[f][g]);
+  public static boolean hasOption(String[] args, String option){
+    for (int i=0; i<args.length; i++){
+      if (args[i].equals(option)){
+        return true;
       }
-      output.println();
     }
-    output.close();
+    return false;
   }
   
   
   /**
-   * appendSolution
-   * Takes a sentence and appends it to solution.txt
-   * @param A string that will say the number of monster's steps and the hunter's steps
-   * @return nothing
+   * optionValue
+   * @param The command line arguments, the option to look for, and the value to use if it is missing
+   * @return The argument that follows the option
    */
-  public static void appendSolution(String sentence) throws Exception{
-    PrintWriter output = new PrintWriter(new FileWriter("solution.txt", true));
-    output.println(sentence);
-    output.close();
-  }
-  
-  
-  /**
-   * writeBlockCombos
-   * Creates a file to contain all the blocking combinations
-   * @param A string that will add a title in the file
-   * @return nothing
-   */
-  public static void writeBlockCombos(String line) throws Exception{
-    File myFile=new File("BlockCombos.txt");
-    
-    PrintWriter output = new PrintWriter(myFile);
-    output.println(line);
-    output.close();
+  public static String optionValue(String[] args, String option, String missing){
+    for (int i=0; i<args.length-1; i++){
+      if (args[i].equals(option)){
+        return args[i+1];
+      }
+    }
+    return missing;
   }
   
   
   /**
-   * appendBlockCombos
-   * Takes a string and appends it to the blocking combination list
-   * @param A string that will either be the binary code, the number of blocked traps, or "Passed Through"
+   * main
+   * Greets the user, asks for the map file, and solves it
+   * @param String[] args
    * @return nothing
    */
-  public static void appendBlockCombos(String line) throws Exception{
-    PrintWriter output = new PrintWriter(new FileWriter("BlockCombos.txt", true));
-    output.println(line);
-    output.close();
-  }
-  
-  
-  /**
-   * readBlockCombos
-   * Reads the blocking combination list and determines the binary code with the minimum traps necessary
-   * @param A number that will be the total number of traps
-   * @return A string with the binary code signifying the which traps are necessary
-   */
-  public static String readBlockCombos(int totalTrapCount) throws Exception {
-    File myFile=new File("BlockCombos.txt");
-    Scanner input = new Scanner(myFile);
-    
-    int trapCount=totalTrapCount;
-    int minTrap=totalTrapCount;
+  public static void main(String[] args) throws Exception{
+    Scanner keyboard=new Scanner(System.in);
+    String fileName;
     
-    String line;
-    String binaryCode="0000";
-    String optimumCode="";
-    boolean pass=false;
+    //Greets and prompts user for file name
+    System.out.println("Welcome to Monster Hunter");
+    System.out.println("Enter file name: ");
+    fileName=keyboard.nextLine();
+    keyboard.close();
     
-    line=input.nextLine();
+    //Results are kept in memory; with --dump every result is also written to BlockCombos.txt and NumberStepsList.txt
+    TextDumpSink dump=hasOption(args, "--dump") ? new TextDumpSink() : null;
+    //With -Dmonsterhunter.metrics=true the counters can be watched over JMX while the search runs
+    Metrics.register();
     
-    while (input.hasNext()){
-      line=input.nextLine();
-      
-      if (line.equals("-----")){ //Dashes divide each different blocking combination
-        pass=false; //Resets the boolean after every combination
-      } else if (line.equals("Passed Through")){
-        pass=true; //Denotes that the array has not been successfully blocked
-      }
-      
-      if ((!line.equals("Passed Through")) && (!line.equals("-----")) && (!pass)){
-        binaryCode=line;
-        trapCount=Integer.parseInt(input.nextLine());
-        
-        if (trapCount<=minTrap){
-          minTrap=trapCount; //Takes the minimum trapCount that also blocks all paths
-          optimumCode=binaryCode;
-        }
-      }
+    solve(fileName, new File("solution.txt"), dump, args);
+    if (dump!=null){
+      dump.close();
     }
-    input.close();
-    return optimumCode;
-  }
-  
-  
-  /**
-   * writeListSteps
-   * Creates a file to contain the list of step numbers for both the hunter and the monster
-   * @param An int of -1 representing a divider (and the title) of the file
-   * @return nothing
-   */
-  public static void writeListSteps(int steps) throws Exception{
-    File myFile=new File("NumberStepsList.txt");
     
-    PrintWriter output = new PrintWriter(myFile);
-    output.println(steps);
-    output.close();
-  }
-  
-  
-  /**
-   * appendListSteps
-   * Takes an integer and appends it to the total list of steps
-   * @param An int representing the number of steps taken or -1 to signify a divider
-   * @return nothing
-   */
-  public static void appendListSteps(int steps) throws Exception{
-    PrintWriter output = new PrintWriter(new FileWriter("NumberStepsList.txt", true));
-    output.println(steps);
-    output.close();
+    if (hasOption(args, "--metrics")){
+      System.out.println(Metrics.report());
+    }
   }
   
   
   /**
-   * readListSteps
-   * Reads the number of steps and determines the maximum number of steps before the monster's capture and the-
-   * minimum number of steps to set all the traps
-   * @param An int representing the total number of traps
-   * Mode 1 returns the max monster's steps before capture
-   * Mode 2 returns the min hunter's steps to set all traps
-   * @return nothing
+   * solve
+   * The read and write methods and the movement methods combined; writes the answer to solution.txt
+   * @param A string that is the file name of the map file, and the command line options
+   * @return The answers
    */
-  public static int readListSteps(int trapCount, String mode) throws Exception {
-    File myFile=new File("NumberStepsList.txt");
-    Scanner input = new Scanner(myFile);
-    
-    int line;
-    int maxMonsterSteps=0;
-    int minHunterSteps=-1;
-    
-    boolean hunter=true; //Determines if monster's steps or hunter's steps
-    
-    while (input.hasNext()){
-      line=input.nextInt();
-      
-      if (line==-1){ //Divider -1 will toggle the switch, monster's steps is checked first
-        hunter=!hunter;
-        line=input.nextInt();
-      }
-      
-      if ((!hunter) && (line>=maxMonsterSteps)){ //Saves the max monster's steps
-        maxMonsterSteps=line;
-      }
-      
-      if (hunter){
-        if (minHunterSteps==-1){ //Initializes minHunterSteps so it doesn't start at -1
-          minHunterSteps=line;
-        }
-        if( line<=minHunterSteps){ //Saves the min hunter's steps
-          minHunterSteps=line;
-        }
-      }
-    }
-    
-    if (trapCount==1){
-      minHunterSteps=0; //If there is only one trap, the minHunterSteps is 0, this overrides everything else
-    }
-    
-    input.close();
-    
-    if (mode.equals("monsterSteps")){
-      return maxMonsterSteps;
-      
-    }else{
-      return minHunterSteps;
-    }
+  public static Solution solve(String fileName, String[] args) throws Exception{
+    return solve(fileName, new File("solution.txt"), null, args);
   }
   
   
   /**
-   * main
-   * The main method where the read and write methods and the movement methods are combined
-   * @param String[] args
-   * @return nothing
+   * solve
+   * The read and write methods and the movement methods combined
+   * Every grid and result belongs to this call, so several maps can be solved at once on different threads
+   * @param A string that is the file name of the map file, the file to write the answer to,
+   * a sink that receives every result as well (or null), and the command line options
+   * @return The answers
    */
-  public static void main(String[] args) throws Exception{
-    Scanner keyboard=new Scanner(System.in);
-    
-    String[][] maze;
-    String[][] allPathedTrapsArray;
-    String[][] blockingArray;
-    String [][] minTrapArray;
-    String[][] hunterArray;
+  public static Solution solve(String fileName, File output, ResultSink dump, String[] args) throws Exception{
+    Grid maze;
+    Grid allPathedTrapsArray;
+    Grid minTrapArray;
+    Grid hunterArray;
     
-    int [][]trapCoordinateArray;
-    int [][]trapCoordinateArray2;
+    int []trapCoordinateArray; //Cell indices of the on-path traps
+    int []trapCoordinateArray2; //Cell indices of the minimum traps
     
-    String fileName;
-    String binaryTotalBlockCombos;
     String binaryCode;
     
-    int lengthMaze;
     int trapCount;
-    int decimalTotalBlockCombos;
+    long decimalTotalBlockCombos;
     int countBTrap;
     
-    writeBlockCombos("List of Block Combinations");
-    writeListSteps(-1);
-    
-    //Greets and prompts user for file name
-    System.out.println("Welcome to Monster Hunter");
-    System.out.println("Enter file name: ");
-    fileName=keyboard.nextLine();
-    keyboard.close();
-    
-    allPathedTrapsArray=readFile(fileName);
-    blockingArray=readFile(fileName);
-    
-    //Counts the number of total traps
-    maze= readFile(fileName); //Updates the maze
-    lengthMaze=maze.length;
-    int totalTraps=0;
-    for (int i=0; i<maze.length;i++){
-      for (int j=0; j<maze.length;j++){
-        if (maze[i][j].equals("P")){
-          totalTraps+=1;
-        }
+    Results results=new Results(dump);
+    int format=ReportWriter.format(args); //Checked before any searching is done
+    Deadline deadline=Deadline.fromOptions(args); //Counted from the start, loading included
+    boolean proven=true;
+    
+    long phaseStart=Metrics.start();
+    maze=MapLoader.load(fileName); //Loaded once; every other grid is a copy of this one
+    Metrics.phase(Metrics.LOAD, phaseStart);
+    
+    //A map that was solved before is answered from the cache without searching
+    ResultCache cache=ResultCache.fromOptions(args);
+    String key=null;
+    if (cache!=null){
+      key=ResultCache.key(maze, args);
+      Solution cached=cache.get(key, maze);
+      if (cached!=null){
+        writeReport(cached, output, format);
+        Metrics.count(Metrics.MAPS_SOLVED);
+        return cached;
       }
     }
     
-    //Makes an array with all the traps
-    trapCoordinateArray= new int[2][totalTraps+1];
+    //The monster may come in through any entrance and leave through any exit
+    int[] startCells=maze.startCells();
+    int[] exitCells=maze.findAll(Grid.EXIT);
     
-    //Moves on maze, starts on 1,1, edits an array with on-path traps, mode 1 (determines on-path traps), and step number of 1
-    move(maze,1,1, allPathedTrapsArray, 1,1);
+    //Contracts the corridors of the maze so the solvers only see junctions, dead ends, the start cells, the exits and the-
+    //potential traps, then joins the start cells to a super-source and the exits to a super-sink
+    phaseStart=Metrics.start();
+    MazeGraph monsterGraph=MazeGraph.junctions(maze, Grid.MONSTER_PASSABLE, Grid.MONSTER_NODES, startCells).withTerminals(startCells, exitCells);
     
-    allPathedTrapsArray=readFile("solution.txt"); //The file contains all on-path traps
+    //Finds the traps that lie on some path from an entrance to an exit using the blocks and articulation cells of the open cells
+    BlockCutTree blocks=new BlockCutTree(monsterGraph);
+    trapCoordinateArray=blocks.trapsOnPath();
+    trapCount=trapCoordinateArray.length;
     
-    //Recounts the number of traps
-    trapCount=0;
-    for (int f=0; f<allPathedTrapsArray.length;f++){
-      for (int g=0; g<allPathedTrapsArray.length;g++){
-        if (allPathedTrapsArray[f][g].equals("T")){
-          trapCoordinateArray[0][trapCount]=f;
-          trapCoordinateArray[1][trapCount]=g;
-          trapCount+=1;
-        }
-      }
-    }
+    //The traps that dominate the exits: every path from an entrance to an exit passes through them, so any one is a whole answer
+    int[] mandatoryTraps=blocks.dominatingTraps();
     
-    //Makes an integer that is made up of repeated 1's, one for every trap there is
-    binaryTotalBlockCombos="";
-    for (int i=0;i<trapCount;i++){
-      binaryTotalBlockCombos+="1";
+    //Makes a grid with all on-path traps
+    allPathedTrapsArray=maze.copy();
+    for (int i=0; i<trapCount;i++){
+      allPathedTrapsArray.cells[trapCoordinateArray[i]]=Grid.TRAP;
     }
     
-    //Converts it the number of combinations of blocks to a decimal number
-    decimalTotalBlockCombos=Integer.parseInt(binaryTotalBlockCombos,2);
-    binaryCode="";
-    countBTrap=0;
-    
-    
-    for (int i=1;i<=decimalTotalBlockCombos;i++){ //Converts every number up to and including the total number of combinations to a binary string
-      binaryCode=Integer.toBinaryString(i);
-      
-      while (binaryCode.length()<trapCount){
-        binaryCode="0"+binaryCode; //Pads the binaryCode with "0"s
-      }
-      countBTrap=0;
-      
-      for (int f=0; f<blockingArray.length;f++){ //Resets the array so all blocked traps become regular potential traps
-        for (int g=0; g<blockingArray.length;g++){
-          if (blockingArray[f][g].equals("B")){
-            blockingArray[f][g]="P";
+    Metrics.phase(Metrics.ON_PATH, phaseStart);
+    
+    minTrapArray=maze.copy();
+    
+    phaseStart=Metrics.start();
+    if (mandatoryTraps.length>0){
+      //One trap is enough, so no combination or cut is searched and the hunter has nothing to walk
+      minTrapArray.cells[BlockCutTree.lowestTrap(mandatoryTraps)]=Grid.TRAP;
+      trapCount=1;
+    } else if (hasOption(args, "--enumerate")){ //Tries every combination of blocked traps; kept as a reference for the cut below
+      if (hasOption(args, "--parallel")){
+        //Runs the combinations on a fork/join pool, fewest traps first
+        binaryCode=new BlockComboSearch(maze, startCells, exitCells, trapCoordinateArray).search(ForkJoinPool.commonPool());
+      } else if (trapCount==0){
+        binaryCode=""; //No trap lies on a path, so there is no combination to try
+      } else {
+        if (trapCount>BlockComboSearch.MAX_TRAPS){
+          throw new IllegalArgumentException("Too many traps to enumerate: "+trapCount);
+        }
+        
+        //The number of combinations of blocks is an integer made up of repeated 1's, one for every trap there is
+        decimalTotalBlockCombos=(1L<<trapCount)-1;
+        binaryCode="";
+        countBTrap=0;
+        Bitboard blockingBoard=new Bitboard(maze, Grid.MONSTER_PASSABLE);
+        long[] reach=blockingBoard.newBuffer();
+        
+        
+        for (long i=1;i<=decimalTotalBlockCombos;i++){ //Converts every number up to and including the total number of combinations to a binary string
+          binaryCode=Long.toBinaryString(i);
+          
+          while (binaryCode.length()<trapCount){
+            binaryCode="0"+binaryCode; //Pads the binaryCode with "0"s
           }
+          countBTrap=0;
+          
+          for (int k=0;k<binaryCode.length();k++){ //Blocks the traps of the combination and counts them
+            if (binaryCode.charAt(k)=='1'){
+              blockingBoard.block(trapCoordinateArray[k]);
+              countBTrap+=1;
+            }
+          }
+          
+          //Floods out from the start cells on the board with blocked traps; reaching an exit means the combination does not block every path
+          if (blockingBoard.reaches(startCells, exitCells, reach)){
+            results.passedThrough();
+          }
+          
+          for (int k=0;k<binaryCode.length();k++){ //Resets the board so all blocked traps become regular potential traps
+            if (binaryCode.charAt(k)=='1'){
+              blockingBoard.unblock(trapCoordinateArray[k]);
+            }
+          }
+          
+          //Records the binary code and the number of traps blocked
+          results.blockCombo(binaryCode, countBTrap);
+          Metrics.count(Metrics.COMBINATIONS_TESTED);
         }
+        
+        binaryCode=results.optimumCode(); //This is the binary code representing only the necessary traps
       }
       
-      for (int k=0;k<binaryCode.length();k++){ //Counts the number of "B" traps in the array
-        if (binaryCode.substring(k,k+1).equals("1")){
-          blockingArray[trapCoordinateArray[0][k]][trapCoordinateArray[1][k]]="B";
-          countBTrap+=1;
+      //Uses binary strings to get every combination of blocked paths
+      for (int k=0;k<binaryCode.length();k++){
+        if (binaryCode.charAt(k)=='1'){ //If the digit is a one, a specific trap is blocked
+          minTrapArray.cells[trapCoordinateArray[k]]=Grid.TRAP;
         }
       }
-      
-      //Moves on the array with blocked traps, starts on 1,1, mode 2 (finds only the necessary traps), and step number is 1
-      move(blockingArray,1,1, allPathedTrapsArray, 2,1);
-      
-      //Appends the binary code and the number of traps blocked
-      appendBlockCombos(binaryCode);
-      appendBlockCombos(Integer.toString(countBTrap));
-      
-      appendBlockCombos("-----"); //Adds a divider before a new blocked array
+    } else {
+      //The minimum set of traps is a minimum vertex cut between the entrances and the exits, found with a maximum flow
+      int[] cut=new TrapCutSolver(monsterGraph).minimumCut();
+      for (int k=0;k<cut.length;k++){
+        minTrapArray.cells[cut[k]]=Grid.TRAP;
+      }
     }
     
-    binaryCode=readBlockCombos(trapCount); //This is the binary code representing only the necessary traps
+    Metrics.phase(Metrics.TRAPS, phaseStart);
     
-    minTrapArray=readFile(fileName);
-    
-    //Uses binary strings to get every combination of blocked paths
-    for (int k=0;k<binaryCode.length();k++){
-      if (binaryCode.substring(k,k+1).equals("1")){ //If the digit is a one, a specific trap is blocked
-        minTrapArray[trapCoordinateArray[0][k]][trapCoordinateArray[1][k]]="T";
+    phaseStart=Metrics.start();
+    boolean treeMaze=false;
+    if (minTrapArray.count(Grid.TRAP)==0){
+      //No trap is set, so no path ends in a capture; the search would only wander the open maze, which is exponential
+    } else if (hasOption(args, "--enumerate")){
+      //Starts on every start cell in turn, mode 3, and step number of 1
+      for (int i=0; i<startCells.length; i++){
+        move(minTrapArray,startCells[i], allPathedTrapsArray,  3,1, results);
       }
+    } else {
+      //Follows the same paths as mode 3, a corridor at a time, or traverses once if the maze is a tree
+      //Past the deadline the longest path found so far is kept
+      MazeGraph captureGraph=MazeGraph.junctions(minTrapArray, Grid.CAPTURE_PASSABLE, Grid.TRAP_NODES, startCells).withTerminals(startCells, new int[0]);
+      int search=CaptureSearch.run(captureGraph, results, deadline);
+      treeMaze=(search==CaptureSearch.TREE);
+      proven&=(search!=CaptureSearch.CUT_SHORT);
     }
     
-    //Saves the minimum number of traps to a file
-    writeSolution(minTrapArray);
-    
-    //Starts on 1,1, mode 3, and step number of 1
-    move(minTrapArray,1,1, allPathedTrapsArray,  3,1);
+    Metrics.phase(Metrics.CAPTURE, phaseStart);
     
-    //Copies an array with the minimum number of traps for the hunter to move in
-    hunterArray=readFile("solution.txt");
+    //Copies the grid with the minimum number of traps for the hunter to move in
+    phaseStart=Metrics.start();
+    hunterArray=minTrapArray.copy();
     
     if (trapCount!=1){ //If there is only one trap, the number of steps to set all traps is zero; this loop is skipped
-      //Blocks the entrance ("N") and exit ("F")
-      hunterArray[0][1]="+"; 
-      hunterArray[hunterArray.length-2][hunterArray.length-1]="+";
-      
-      //Recalculates the number of traps; this is the minimum number of traps
-      trapCount=0;
-      for (int f=0; f<hunterArray.length;f++){
-        for (int g=0; g<hunterArray.length;g++){
-          if (hunterArray[f][g].equals("T")){
-            trapCount+=1;
-          }
-        }
-      }
+      //Blocks every entrance ("N") and exit ("F")
+      hunterArray.replaceAll(Grid.ENTRANCE, Grid.WALL);
+      hunterArray.replaceAll(Grid.EXIT, Grid.WALL);
       
       //Makes a second trap array with the minimum traps necessary and recalculates the trap count
-      trapCoordinateArray2=new int[2][trapCount];
+      trapCoordinateArray2=new int[hunterArray.count(Grid.TRAP)];
       trapCount=0;
-      for (int f=0; f<hunterArray.length;f++){
-        for (int g=0; g<hunterArray.length;g++){
-          if (hunterArray[f][g].equals("T")){
-            trapCoordinateArray2[0][trapCount]=f;
-            trapCoordinateArray2[1][trapCount]=g;
-            trapCount+=1;
-          }
+      for (int i=0; i<hunterArray.cells.length;i++){
+        if (hunterArray.cells[i]==Grid.TRAP){
+          trapCoordinateArray2[trapCount]=i;
+          trapCount+=1;
         }
       }
       
-      //Adds -1 to the file to divide the list of monster steps and the list of human steps
-      appendListSteps(-1);
-      
-      //Runs a recursive call for every starting trap position while placing breadcrumbs
-      //Moves on hunterArray, starts on every trap coordinate, starts with 0 steps, first trapCount is used for traps remaining-
-      //second trap count is a parameter for readListSteps method, mode 1 to disable backtracking
-      for (int i=0; i<trapCount;i++){
-        moveHunter(hunterArray,trapCoordinateArray2[0][i],trapCoordinateArray2[1][i], 0 ,trapCount, trapCount, 1);
-      }
-      
-      //Repeats the above recursive call but mode 2 to allow backtracking
-      for (int i=0; i<trapCount;i++){
-        moveHunter(hunterArray,trapCoordinateArray2[0][i],trapCoordinateArray2[1][i], 0 ,trapCount, trapCount, 2);
+      if (hasOption(args, "--enumerate")){ //Searches every walk of the hunter; kept as a reference for the planner below
+        //Runs a recursive call for every starting trap position while placing breadcrumbs
+        //Moves on hunterArray, starts on every trap cell, starts with 0 steps, trapCount is used for traps remaining,
+        //mode 1 to disable backtracking
+        for (int i=0; i<trapCount;i++){
+          moveHunter(hunterArray,trapCoordinateArray2[i], 0 ,trapCount, 1, results);
+        }
+        
+        //Repeats the above recursive call but mode 2 to allow backtracking
+        for (int i=0; i<trapCount;i++){
+          moveHunter(hunterArray,trapCoordinateArray2[i], 0 ,trapCount, 2, results);
+        }
+      } else {
+        //Plans the shortest walk through all traps over the distances between them
+        //Past the deadline the shortest walk found so far is kept
+        HunterPlanner planner=new HunterPlanner(MazeGraph.junctions(hunterArray, Grid.HUNTER_PASSABLE, Grid.TRAP_NODES), trapCoordinateArray2);
+        int hunterSteps=planner.shortestRoute(deadline);
+        proven&=planner.proven();
+        if (hunterSteps>=0){
+          results.plannedHunterSteps(hunterSteps); //The planner skips most walks, so it gives no distribution
+        }
       }
     }
     
-    //Appends number of monster steps and hunter steps to solution.txt
-    appendSolution("");
-    appendSolution(readListSteps(trapCount, "monsterSteps")+ " steps to capture monster");
-    appendSolution(readListSteps(trapCount, "hunterSteps")+ " steps to set traps");
+    Metrics.phase(Metrics.HUNTER, phaseStart);
+    
+    Solution solution=new Solution(minTrapArray, results.maxMonsterSteps(), results.minHunterSteps(trapCount), treeMaze, mandatoryTraps, proven,
+                                   results.monsterHistogram(), results.hunterHistogram());
+    if ((cache!=null) && (proven)){ //A result cut short by a deadline could be improved by a later run with more time
+      cache.put(key, solution);
+    }
+    
+    phaseStart=Metrics.start();
+    writeReport(solution, output, format);
+    Metrics.phase(Metrics.REPORT, phaseStart);
+    Metrics.count(Metrics.MAPS_SOLVED);
+    return solution;
+  }
+  
+  
+  /**
+   * writeReport
+   * Writes the minimum traps and the number of monster steps and hunter steps in one go, in the formats asked for
+   * @param The answers, the file to write, and the extra format (see ReportWriter)
+   * @return nothing
+   */
+  public static void writeReport(Solution solution, File output, int format) throws Exception{
+    ReportWriter.write(solution, output, format);
   }
 }
\ No newline at end of file
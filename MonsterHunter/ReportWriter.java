@@ -0,0 +1,239 @@
+/* ReportWriter.java
+ * Writes the final report of a map in one go: the whole report is built in memory and handed to a file channel once,
+ * instead of opening the file again for every line
+ * The text layout is the one solution.txt always had; --format json or --format binary also writes the same answers-
+ * next to it as solution.json or solution.bin
+ * A solution a deadline cut short says so in every format
+ * Every format ends with the distributions of the capture steps and the hunter's walks: p50, p90, p99 and the maximum;
+ * the hunter's walks are only counted by --enumerate. A distribution with nothing in it is left out of the text report,
+ * written as null in JSON and as a bare zero count in the binary report
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+class ReportWriter{
+  static final int TEXT=0;
+  static final int JSON=1;
+  static final int BINARY=2;
+  private static final int MAGIC=0x4d485231; //"MHR1"
+  
+  /**
+   * format
+   * @param The command line arguments
+   * @return The extra format asked for with --format, or TEXT if none
+   */
+  static int format(String[] args){
+    String format=MonsterHunter.optionValue(args, "--format", "text");
+    if (format.equals("json")){
+      return JSON;
+    } else if (format.equals("binary")){
+      return BINARY;
+    } else if (format.equals("text")){
+      return TEXT;
+    }
+    throw new IllegalArgumentException("Unknown report format: "+format);
+  }
+  
+  /**
+   * write
+   * Writes the text report, and the extra format if one was asked for
+   * @param The answers, the text report file, and the extra format
+   * @return nothing
+   */
+  static void write(Solution solution, File output, int format) throws IOException{
+    write(text(solution), output);
+    if (format==JSON){
+      write(json(solution), sibling(output, ".json"));
+    } else if (format==BINARY){
+      write(binary(solution), sibling(output, ".bin"));
+    }
+  }
+  
+  /**
+   * sibling
+   * @param The text report file and the extension of the other format
+   * @return The file next to it with the extension swapped, so solution.txt becomes solution.json
+   */
+  static File sibling(File output, String extension){
+    String name=output.getName();
+    int dot=name.lastIndexOf('.');
+    return new File(output.getAbsoluteFile().getParentFile(), ((dot>0) ? name.substring(0, dot) : name)+extension);
+  }
+  
+  /**
+   * distribution
+   * @param What was counted, the histogram, and what each total belongs to
+   * @return A line such as "capture steps p50 12 p90 20 p99 25 max 25 over 340 paths", or nothing if the histogram is empty
+   */
+  static String distribution(String name, StepHistogram histogram, String unit){
+    if (histogram.count()==0){
+      return "";
+    }
+    return name+" p50 "+histogram.percentile(0.5)+" p90 "+histogram.percentile(0.9)+" p99 "+histogram.percentile(0.99)
+      +" max "+histogram.max()+" over "+histogram.count()+" "+unit+System.lineSeparator();
+  }
+  
+  /**
+   * text
+   * The grid with the minimum traps, an empty line, and the sentences about the steps
+   * @param The answers
+   * @return The report
+   */
+  static ByteBuffer text(Solution solution){
+    Grid grid=solution.traps;
+    byte[] newline=System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    String tail=System.lineSeparator()
+      +solution.monsterSteps+" steps to capture monster"+System.lineSeparator()
+      +solution.hunterSteps+" steps to set traps"+System.lineSeparator()
+      +(solution.treeMaze ? "capture steps found by a single tree traversal" : "capture steps found by searching every path")+System.lineSeparator()
+      +distribution("capture steps", solution.monsterHistogram, "paths")
+      +distribution("hunter steps", solution.hunterHistogram, "walks")
+      +(solution.proven ? "" : "best steps found before the deadline; not proven optimal"+System.lineSeparator());
+    byte[] tailBytes=tail.getBytes(StandardCharsets.US_ASCII);
+    
+    ByteBuffer buffer=ByteBuffer.allocate((grid.width+newline.length)*grid.height+tailBytes.length);
+    for (int y=0; y<grid.height; y++){
+      buffer.put(grid.cells, y*grid.width, grid.width);
+      buffer.put(newline);
+    }
+    buffer.put(tailBytes);
+    buffer.flip();
+    return buffer;
+  }
+  
+  /**
+   * json
+   * {"width":..,"height":..,"grid":[rows],"traps":[[y,x],..],"mandatoryTraps":[[y,x],..],"monsterSteps":..,"hunterSteps":..,"captureSearch":"tree"|"paths","proven":..,
+   * "captureDistribution":{"count":..,"p50":..,"p90":..,"p99":..,"max":..}|null,"hunterDistribution":{..}|null}
+   * @param The answers
+   * @return The report
+   */
+  static ByteBuffer json(Solution solution){
+    Grid grid=solution.traps;
+    StringBuilder json=new StringBuilder((grid.width+4)*grid.height+256);
+    json.append("{\"width\":").append(grid.width).append(",\"height\":").append(grid.height).append(",\"grid\":[");
+    for (int y=0; y<grid.height; y++){
+      json.append((y>0) ? ",\"" : "\"");
+      for (int x=0; x<grid.width; x++){
+        appendCell(json, grid.cells[grid.index(y,x)]&0xff);
+      }
+      json.append('"');
+    }
+    json.append("],\"traps\":[");
+    boolean first=true;
+    for (int i=0; i<grid.cells.length; i++){
+      if (grid.cells[i]==Grid.TRAP){
+        json.append(first ? "[" : ",[").append(i/grid.width).append(',').append(i%grid.width).append(']');
+        first=false;
+      }
+    }
+    json.append("],\"mandatoryTraps\":[");
+    for (int i=0; i<solution.mandatoryTraps.length; i++){
+      int cell=solution.mandatoryTraps[i];
+      json.append((i>0) ? ",[" : "[").append(cell/grid.width).append(',').append(cell%grid.width).append(']');
+    }
+    json.append("],\"monsterSteps\":").append(solution.monsterSteps);
+    json.append(",\"hunterSteps\":").append(solution.hunterSteps);
+    json.append(",\"captureSearch\":\"").append(solution.treeMaze ? "tree" : "paths").append('"');
+    json.append(",\"proven\":").append(solution.proven);
+    json.append(",\"captureDistribution\":");
+    appendDistribution(json, solution.monsterHistogram);
+    json.append(",\"hunterDistribution\":");
+    appendDistribution(json, solution.hunterHistogram);
+    json.append('}');
+    json.append(System.lineSeparator());
+    return ByteBuffer.wrap(json.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+  
+  /**
+   * appendCell
+   * Writes a cell of a row string; the quote and backslash are escaped with a backslash, and control characters and-
+   * bytes outside ASCII as six-character unicode escapes, so the report stays valid JSON whatever bytes the map file held
+   * @param The report so far and the cell, read as an unsigned byte
+   * @return nothing
+   */
+  private static void appendCell(StringBuilder json, int cell){
+    if ((cell=='"') || (cell=='\\')){
+      json.append('\\').append((char)cell);
+    } else if ((cell<0x20) || (cell>=0x7f)){
+      json.append("\\u00").append(Character.forDigit(cell>>4, 16)).append(Character.forDigit(cell&0xf, 16));
+    } else {
+      json.append((char)cell);
+    }
+  }
+  
+  private static void appendDistribution(StringBuilder json, StepHistogram histogram){
+    if (histogram.count()==0){
+      json.append("null");
+      return;
+    }
+    json.append("{\"count\":").append(histogram.count()).append(",\"p50\":").append(histogram.percentile(0.5));
+    json.append(",\"p90\":").append(histogram.percentile(0.9)).append(",\"p99\":").append(histogram.percentile(0.99));
+    json.append(",\"max\":").append(histogram.max()).append('}');
+  }
+  
+  /**
+   * binary
+   * Big-endian: magic number, width, height, monster steps, hunter steps, tree flag byte, proven flag byte, the cells-
+   * row by row, the number of mandatory traps and their cell indices, then for the capture steps and the hunter's walks-
+   * a long count and, unless the count is 0, int p50, p90, p99 and maximum
+   * @param The answers
+   * @return The report
+   */
+  static ByteBuffer binary(Solution solution){
+    Grid grid=solution.traps;
+    ByteBuffer buffer=ByteBuffer.allocate(22+grid.cells.length+4+4*solution.mandatoryTraps.length
+      +distributionBytes(solution.monsterHistogram)+distributionBytes(solution.hunterHistogram));
+    buffer.putInt(MAGIC);
+    buffer.putInt(grid.width);
+    buffer.putInt(grid.height);
+    buffer.putInt(solution.monsterSteps);
+    buffer.putInt(solution.hunterSteps);
+    buffer.put((byte)(solution.treeMaze ? 1 : 0));
+    buffer.put((byte)(solution.proven ? 1 : 0));
+    buffer.put(grid.cells);
+    buffer.putInt(solution.mandatoryTraps.length);
+    for (int i=0; i<solution.mandatoryTraps.length; i++){
+      buffer.putInt(solution.mandatoryTraps[i]);
+    }
+    putDistribution(buffer, solution.monsterHistogram);
+    putDistribution(buffer, solution.hunterHistogram);
+    buffer.flip();
+    return buffer;
+  }
+  
+  private static int distributionBytes(StepHistogram histogram){
+    return (histogram.count()==0) ? 8 : 24;
+  }
+  
+  private static void putDistribution(ByteBuffer buffer, StepHistogram histogram){
+    buffer.putLong(histogram.count());
+    if (histogram.count()==0){
+      return;
+    }
+    buffer.putInt(histogram.percentile(0.5));
+    buffer.putInt(histogram.percentile(0.9));
+    buffer.putInt(histogram.percentile(0.99));
+    buffer.putInt(histogram.max());
+  }
+  
+  /**
+   * write
+   * Replaces a file with the contents of a buffer through one channel
+   * @param The contents and the file
+   * @return nothing
+   */
+  private static void write(ByteBuffer buffer, File file) throws IOException{
+    Metrics.add(Metrics.BYTES_WRITTEN, buffer.remaining());
+    try (FileChannel channel=FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)){
+      while (buffer.hasRemaining()){
+        channel.write(buffer);
+      }
+    }
+  }
+}
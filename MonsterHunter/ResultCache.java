@@ -0,0 +1,277 @@
+/* ResultCache.java
+ * Remembers the answers for maps that were solved before, keyed by a hash of the grid and the solver mode
+ * The memory tier keeps the most recently used entries up to a fixed number of bytes; the optional disk tier keeps one-
+ * small binary file per map in a directory, so answers survive restarts and are shared by every process using the directory
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class ResultCache{
+  static final long MEMORY_BYTES=64L<<20;
+  private static final int MAGIC=0x4d484331; //"MHC1"
+  private static final long HISTOGRAM_BYTES=8L*StepHistogram.BUCKETS+64; //The counts of a histogram and its header
+  
+  //One cache per directory, and one for memory only under the empty name
+  private static final Map<String, ResultCache> shared=new HashMap<String, ResultCache>();
+  
+  private final File directory;
+  private final long maxBytes;
+  private final LinkedHashMap<String, Entry> memory=new LinkedHashMap<String, Entry>(16, 0.75f, true); //Access order, so the eldest entry is the least recently used
+  private long memoryBytes=0;
+  
+  /**
+   * ResultCache
+   * @param The most bytes of entries to keep in memory, and the directory of the disk tier (or null for memory only)
+   */
+  ResultCache(long maxBytes, File directory){
+    this.directory=directory;
+    this.maxBytes=maxBytes;
+    if (directory!=null){
+      directory.mkdirs();
+    }
+  }
+  
+  /**
+   * fromOptions
+   * --cache turns on the memory tier, shared by every map this process solves; --cache-dir also turns on the disk tier
+   * Every directory has its own cache, so maps solved with different directories never share answers
+   * @param The command line arguments
+   * @return The cache, or null if caching is off
+   */
+  static synchronized ResultCache fromOptions(String[] args){
+    String directory=MonsterHunter.optionValue(args, "--cache-dir", null);
+    if ((directory==null) && (!MonsterHunter.hasOption(args, "--cache"))){
+      return null;
+    }
+    String name=(directory!=null) ? new File(directory).getAbsolutePath() : "";
+    ResultCache cache=shared.get(name);
+    if (cache==null){
+      cache=new ResultCache(MEMORY_BYTES, (directory!=null) ? new File(name) : null);
+      shared.put(name, cache);
+    }
+    return cache;
+  }
+  
+  /**
+   * key
+   * Hashes the size and every cell of the grid as it was loaded, and the options that change how it is solved:
+   * --enumerate and --parallel can give other capture steps, ties and distributions than the default solvers
+   * @param The maze and the command line arguments
+   * @return The SHA-256 of the grid and the mode in hexadecimal
+   */
+  static String key(Grid maze, String[] args) throws Exception{
+    MessageDigest digest=MessageDigest.getInstance("SHA-256");
+    digest.update(new byte[]{(byte)(maze.width>>>24), (byte)(maze.width>>>16), (byte)(maze.width>>>8), (byte)maze.width,
+                             (byte)(maze.height>>>24), (byte)(maze.height>>>16), (byte)(maze.height>>>8), (byte)maze.height});
+    digest.update(maze.cells);
+    digest.update((byte)((MonsterHunter.hasOption(args, "--enumerate") ? 1 : 0)|(MonsterHunter.hasOption(args, "--parallel") ? 2 : 0)));
+    
+    StringBuilder hex=new StringBuilder(64);
+    byte[] hash=digest.digest();
+    for (int i=0; i<hash.length; i++){
+      hex.append(Character.forDigit((hash[i]>>4)&0xf, 16));
+      hex.append(Character.forDigit(hash[i]&0xf, 16));
+    }
+    return hex.toString();
+  }
+  
+  /**
+   * get
+   * Looks in memory, then on disk; an entry found on disk is kept in memory from then on
+   * An unreadable or mismatched file on disk is treated as a miss
+   * @param The key of the maze and the maze itself
+   * @return The answers with the traps set on a copy of the maze, or null if the map has not been solved
+   */
+  Solution get(String key, Grid maze){
+    Entry entry;
+    synchronized (this){
+      entry=memory.get(key);
+    }
+    if ((entry==null) && (directory!=null)){
+      try {
+        entry=read(new File(directory, key+".mhc"));
+      } catch (IOException e){
+        entry=null;
+      }
+      if (entry!=null){
+        keep(key, entry);
+      }
+    }
+    if ((entry==null) || (entry.width!=maze.width) || (entry.height!=maze.height)){
+      return null;
+    }
+    
+    Grid traps=maze.copy();
+    for (int i=0; i<entry.trapCells.length; i++){
+      traps.cells[entry.trapCells[i]]=Grid.TRAP;
+    }
+    StepHistogram monsterHistogram=new StepHistogram();
+    StepHistogram hunterHistogram=new StepHistogram();
+    monsterHistogram.add(entry.monsterHistogram); //Copies, so a caller cannot change the cached counts
+    hunterHistogram.add(entry.hunterHistogram);
+    return new Solution(traps, entry.monsterSteps, entry.hunterSteps, entry.treeMaze, entry.mandatoryTraps.clone(), true,
+                        monsterHistogram, hunterHistogram);
+  }
+  
+  /**
+   * put
+   * Stores the answers in memory and, with a disk tier, in a file written under a temporary name and then renamed,
+   * so a reader never sees half a file
+   * @param The key of the maze and its answers
+   * @return nothing
+   */
+  void put(String key, Solution solution) throws IOException{
+    Grid traps=solution.traps;
+    int[] trapCells=new int[traps.count(Grid.TRAP)];
+    int count=0;
+    for (int i=0; i<traps.cells.length; i++){
+      if (traps.cells[i]==Grid.TRAP){
+        trapCells[count++]=i;
+      }
+    }
+    StepHistogram monsterHistogram=new StepHistogram();
+    StepHistogram hunterHistogram=new StepHistogram();
+    monsterHistogram.add(solution.monsterHistogram);
+    hunterHistogram.add(solution.hunterHistogram);
+    Entry entry=new Entry(traps.width, traps.height, trapCells, solution.monsterSteps, solution.hunterSteps, solution.treeMaze,
+                          solution.mandatoryTraps.clone(), monsterHistogram, hunterHistogram);
+    keep(key, entry);
+    
+    if (directory!=null){
+      File temporary=File.createTempFile(key, ".tmp", directory);
+      try (DataOutputStream output=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))){
+        write(entry, output);
+      }
+      Files.move(temporary.toPath(), new File(directory, key+".mhc").toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+  }
+  
+  /**
+   * keep
+   * Puts an entry in memory, then drops the least recently used entries until the memory tier fits in its bytes again
+   * @param The key and the entry
+   * @return nothing
+   */
+  private synchronized void keep(String key, Entry entry){
+    Entry replaced=memory.put(key, entry);
+    memoryBytes+=entry.bytes-((replaced!=null) ? replaced.bytes : 0);
+    Iterator<Entry> eldest=memory.values().iterator();
+    while ((memoryBytes>maxBytes) && (memory.size()>1)){
+      memoryBytes-=eldest.next().bytes;
+      eldest.remove();
+    }
+  }
+  
+  /**
+   * write
+   * The disk format: magic number, width, height, monster steps, hunter steps, tree flag, trap count, trap cell indices,
+   * mandatory trap count, mandatory trap cell indices, then the monster's and the hunter's step histograms
+   * @param The entry and the stream to write it to
+   * @return nothing
+   */
+  private static void write(Entry entry, DataOutputStream output) throws IOException{
+    output.writeInt(MAGIC);
+    output.writeInt(entry.width);
+    output.writeInt(entry.height);
+    output.writeInt(entry.monsterSteps);
+    output.writeInt(entry.hunterSteps);
+    output.writeBoolean(entry.treeMaze);
+    writeCells(entry.trapCells, output);
+    writeCells(entry.mandatoryTraps, output);
+    entry.monsterHistogram.write(output);
+    entry.hunterHistogram.write(output);
+  }
+  
+  private static void writeCells(int[] cells, DataOutputStream output) throws IOException{
+    output.writeInt(cells.length);
+    for (int i=0; i<cells.length; i++){
+      output.writeInt(cells[i]);
+    }
+  }
+  
+  /**
+   * read
+   * @param The file of an entry
+   * @return The entry, or null if there is no such file
+   */
+  private static Entry read(File file) throws IOException{
+    if (!file.isFile()){
+      return null;
+    }
+    try (DataInputStream input=new DataInputStream(new BufferedInputStream(new FileInputStream(file)))){
+      if (input.readInt()!=MAGIC){
+        throw new IOException("Not a cache entry: "+file);
+      }
+      int width=input.readInt();
+      int height=input.readInt();
+      int monsterSteps=input.readInt();
+      int hunterSteps=input.readInt();
+      boolean treeMaze=input.readBoolean();
+      int[] trapCells=readCells(input, width, height, file);
+      int[] mandatoryTraps=readCells(input, width, height, file);
+      StepHistogram monsterHistogram=StepHistogram.read(input);
+      StepHistogram hunterHistogram=StepHistogram.read(input);
+      return new Entry(width, height, trapCells, monsterSteps, hunterSteps, treeMaze, mandatoryTraps, monsterHistogram, hunterHistogram);
+    }
+  }
+  
+  private static int[] readCells(DataInputStream input, int width, int height, File file) throws IOException{
+    int count=input.readInt();
+    if ((count<0) || (count>(long)width*height)){
+      throw new IOException("Corrupt cache entry: "+file);
+    }
+    int[] cells=new int[count];
+    for (int i=0; i<count; i++){
+      cells[i]=input.readInt();
+      if ((cells[i]<0) || (cells[i]>=width*height)){
+        throw new IOException("Corrupt cache entry: "+file);
+      }
+    }
+    return cells;
+  }
+  
+  /**
+   * Entry
+   * The answers for one map without the grid: only the cells that hold the minimum traps
+   */
+  private static class Entry{
+    final int width;
+    final int height;
+    final int[] trapCells;
+    final int monsterSteps;
+    final int hunterSteps;
+    final boolean treeMaze;
+    final int[] mandatoryTraps;
+    final StepHistogram monsterHistogram;
+    final StepHistogram hunterHistogram;
+    final long bytes; //About how much memory the entry takes
+    
+    Entry(int width, int height, int[] trapCells, int monsterSteps, int hunterSteps, boolean treeMaze, int[] mandatoryTraps,
+          StepHistogram monsterHistogram, StepHistogram hunterHistogram){
+      this.width=width;
+      this.height=height;
+      this.trapCells=trapCells;
+      this.monsterSteps=monsterSteps;
+      this.hunterSteps=hunterSteps;
+      this.treeMaze=treeMaze;
+      this.mandatoryTraps=mandatoryTraps;
+      this.monsterHistogram=monsterHistogram;
+      this.hunterHistogram=hunterHistogram;
+      this.bytes=64+4L*(trapCells.length+mandatoryTraps.length)+2*HISTOGRAM_BYTES;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+/* ResultSink.java
+ * Receives the results reached at the leaves of the searches
+ */
+
+interface ResultSink{
+  /**
+   * passedThrough
+   * Called when the monster reaches the exit, so the current blocking combination does not block every path
+   * @return nothing
+   */
+  void passedThrough();
+  
+  /**
+   * blockCombo
+   * Called once a blocking combination has been fully searched
+   * @param The binary code of the combination and the number of blocked traps in it
+   * @return nothing
+   */
+  void blockCombo(String binaryCode, int trapCount);
+  
+  /**
+   * monsterSteps
+   * Called when the monster reaches a trap
+   * @param The number of steps taken before the capture
+   * @return nothing
+   */
+  void monsterSteps(int steps);
+  
+  /**
+   * hunterSteps
+   * Called when the hunter has set every trap
+   * @param The number of steps taken to set the traps
+   * @return nothing
+   */
+  void hunterSteps(int steps);
+}
@@ -0,0 +1,123 @@
+/* Results.java
+ * Keeps running totals of the search results in memory, and the distribution of every step count in fixed-size histograms
+ */
+
+class Results implements ResultSink{
+  private final ResultSink debug;
+  
+  private boolean pass=false;
+  private String optimumCode="";
+  private int minTrap=Integer.MAX_VALUE;
+  
+  private int maxMonsterSteps=0;
+  private int minHunterSteps=-1;
+  
+  private final StepHistogram monsterHistogram=new StepHistogram();
+  private final StepHistogram hunterHistogram=new StepHistogram();
+  
+  /**
+   * Results
+   * @param A sink to forward every result to (or null)
+   */
+  Results(ResultSink debug){
+    this.debug=debug;
+  }
+  
+  public void passedThrough(){
+    pass=true; //Denotes that the array has not been successfully blocked
+    if (debug!=null){
+      debug.passedThrough();
+    }
+  }
+  
+  public void blockCombo(String binaryCode, int trapCount){
+    if ((!pass) && (trapCount<=minTrap)){
+      minTrap=trapCount; //Takes the minimum trapCount that also blocks all paths
+      optimumCode=binaryCode;
+    }
+    pass=false; //Resets the boolean after every combination
+    if (debug!=null){
+      debug.blockCombo(binaryCode, trapCount);
+    }
+  }
+  
+  public void monsterSteps(int steps){
+    if (steps>=maxMonsterSteps){
+      maxMonsterSteps=steps;
+    }
+    monsterHistogram.record(steps);
+    if (debug!=null){
+      debug.monsterSteps(steps);
+    }
+  }
+  
+  public void hunterSteps(int steps){
+    if ((minHunterSteps==-1) || (steps<=minHunterSteps)){
+      minHunterSteps=steps;
+    }
+    hunterHistogram.record(steps);
+    if (debug!=null){
+      debug.hunterSteps(steps);
+    }
+  }
+  
+  /**
+   * plannedHunterSteps
+   * Takes the shortest walk a planner found without counting it in the distribution, which only holds walks that were-
+   * searched one by one; a planner skips most walks, and which ones depends on the order its threads run in
+   * @param The number of steps of the walk
+   * @return nothing
+   */
+  void plannedHunterSteps(int steps){
+    if ((minHunterSteps==-1) || (steps<=minHunterSteps)){
+      minHunterSteps=steps;
+    }
+    if (debug!=null){
+      debug.hunterSteps(steps);
+    }
+  }
+  
+  /**
+   * optimumCode
+   * @return The binary code with the fewest traps that blocks all paths, or an empty string if none did
+   */
+  String optimumCode(){
+    return optimumCode;
+  }
+  
+  /**
+   * maxMonsterSteps
+   * @return The maximum number of steps before the monster's capture
+   */
+  int maxMonsterSteps(){
+    return maxMonsterSteps;
+  }
+  
+  /**
+   * minHunterSteps
+   * @param An int representing the total number of traps
+   * @return The minimum number of steps to set all traps; 0 if there is only one trap
+   */
+  int minHunterSteps(int trapCount){
+    if (trapCount==1){
+      return 0; //If there is only one trap, the minHunterSteps is 0, this overrides everything else
+    }
+    return minHunterSteps;
+  }
+  
+  /**
+   * monsterHistogram
+   * @return The number of steps of every capture recorded
+   */
+  StepHistogram monsterHistogram(){
+    return monsterHistogram;
+  }
+  
+  /**
+   * hunterHistogram
+   * @return The number of steps of every walk that set all traps and was searched one by one
+   */
+  StepHistogram hunterHistogram(){
+    return hunterHistogram;
+  }
+}
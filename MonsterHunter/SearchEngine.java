@@ -0,0 +1,311 @@
+/* SearchEngine.java
+ * Runs the searches of move and moveHunter with an explicit stack instead of recursion
+ * Each frame is one cell on the current path: the cell, the next direction to try, the step count, the traps left,
+ * the value the cell had before it was marked, and the height of the grid's undo stack when the cell was entered
+ * Because the whole state lives in these arrays and the grid, a search can stop after a number of steps,
+ * be checkpointed, and carry on later
+ */
+
+import java.util.Arrays;
+
+class SearchEngine{
+  //Directions 0 to 3 are the extra pass over neighbouring traps in mode 3 of move, 4 to 7 the normal pass
+  private static final int TRAP_PASS=0;
+  private static final int NORMAL_PASS=4;
+  private static final int DONE=8;
+
+  private final Grid grid;
+  private final Grid trapsOnPath;
+  private final boolean hunter;
+  private final int mode;
+  private final ResultSink sink;
+  private final Results results;
+
+  private int[] frameCell;
+  private int[] frameDirection;
+  private int[] frameSteps;
+  private int[] frameTrapsLeft;
+  private int[] frameUndo;
+  private byte[] framePrevious;
+  private int depth=0;
+
+  private SearchEngine(Grid grid, Grid trapsOnPath, boolean hunter, int mode, ResultSink sink, Results results, int capacity){
+    this.grid=grid;
+    this.trapsOnPath=trapsOnPath;
+    this.hunter=hunter;
+    this.mode=mode;
+    this.sink=sink;
+    this.results=results;
+
+    capacity=Math.max(capacity, 16);
+    frameCell=new int[capacity];
+    frameDirection=new int[capacity];
+    frameSteps=new int[capacity];
+    frameTrapsLeft=new int[capacity];
+    frameUndo=new int[capacity];
+    framePrevious=new byte[capacity];
+  }
+
+  /**
+   * monster
+   * Sets up the search of move
+   * @param The grid to travel on, the index of the starting cell, a grid of all traps on path, the mode,
+   * the number of steps taken, and the sink that receives the results
+   * @return The engine, ready to run
+   */
+  static SearchEngine monster(Grid grid, int cell, Grid trapsOnPath, int mode, int steps, ResultSink sink) throws Exception{
+    SearchEngine engine=new SearchEngine(grid, trapsOnPath, false, mode, sink, null, pathCapacity(grid, Grid.CAPTURE_PASSABLE));
+    engine.enterMonster(cell, steps);
+    return engine;
+  }
+
+  /**
+   * hunter
+   * Sets up the search of moveHunter
+   * @param The grid to travel on, the index of the starting cell, the number of steps, the number of traps left to set,
+   * the mode, and the results so far
+   * @return The engine, ready to run
+   */
+  static SearchEngine hunter(Grid grid, int cell, int steps, int trapsleft, int mode, Results results){
+    SearchEngine engine=new SearchEngine(grid, null, true, mode, results, results, pathCapacity(grid, Grid.HUNTER_PASSABLE));
+    engine.enterHunter(cell, steps, trapsleft);
+    return engine;
+  }
+
+  /**
+   * pathCapacity
+   * A path marks every cell it passes, so it is no longer than the number of passable cells
+   * (the stack still grows if a search revisits cells, as moveHunter does after wiping its breadcrumbs)
+   * @param The grid and a table of the passable cell types
+   * @return The number of frames to allocate up front
+   */
+  private static int pathCapacity(Grid grid, boolean[] passable){
+    int count=1;
+    for (int i=0; i<grid.cells.length; i++){
+      if (passable[grid.cells[i]&0xff]){
+        count+=1;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * finished
+   * @return True once every path has been searched
+   */
+  boolean finished(){
+    return depth==0;
+  }
+
+  /**
+   * run
+   * Carries the search on for at most the given number of steps, where a step tries one direction or leaves one cell
+   * @param The maximum number of steps, or Long.MAX_VALUE to run to the end
+   * @return True if the search is finished
+   */
+  boolean run(long maxSteps) throws Exception{
+    byte[] cells=grid.cells;
+    for (long count=0; (depth>0) && (count<maxSteps); count++){
+      int top=depth-1;
+      int cell=frameCell[top];
+      int direction=frameDirection[top];
+
+      if (direction==DONE){
+        //Every direction has been tried, so the cell is unmarked as the recursion would on return
+        cells[cell]=framePrevious[top];
+        if (hunter){
+          grid.rollback(frameUndo[top]);
+        }
+        depth-=1;
+        continue;
+      }
+
+      frameDirection[top]=direction+1;
+      int next=grid.neighbour(cell, direction%4);
+      if (hunter){
+        //Checks all four directions for positions to move
+        if ((grid.is(next, Grid.OPEN)) || (grid.is(next, Grid.TRAP)) || (grid.is(next, Grid.POTENTIAL))){
+          enterHunter(next, frameSteps[top]+1, frameTrapsLeft[top]);
+        }
+      } else if (direction<NORMAL_PASS){
+        //In mode 3 where checking the maximum number of steps the monster should take before it gets trapped, the monster can move onto a trap
+        if (grid.is(next, Grid.TRAP)){
+          enterMonster(next, frameSteps[top]+1);
+        }
+      } else {
+        //Checks all four directions for positions to move
+        if ((grid.is(next, Grid.OPEN)) || (grid.is(next, Grid.EXIT)) || (grid.is(next, Grid.POTENTIAL))){
+          enterMonster(next, frameSteps[top]+1);
+        }
+      }
+    }
+    return depth==0;
+  }
+
+  /**
+   * enterMonster
+   * What move does on entry to a cell: either records a result, or marks the cell and pushes a frame for it
+   * @param The cell and the number of steps taken
+   * @return nothing
+   */
+  private void enterMonster(int cell, int steps) throws Exception{
+    byte[] cells=grid.cells;
+    Metrics.count(Metrics.CELLS_ENTERED);
+
+    if((mode==3) &&(cells[cell]==Grid.TRAP)){ //In mode 3, the number of monster steps is counted
+      sink.monsterSteps(steps); //Will record the number of steps once a monster reaches a trap
+      Metrics.count(Metrics.LEAVES_REACHED);
+      return;
+    }
+
+    if((mode!=3) && (cells[cell]==Grid.EXIT)){ //In mode 3, the search ends at a trap, not "F", so this would be skipped
+      Metrics.count(Metrics.LEAVES_REACHED);
+      if (mode!=1){ //Mode 1 does not record blocking combinations, so this would be skipped
+        sink.passedThrough(); //Signifies the array was not successfully blocked
+      }
+
+      //Copies all the traps on path to the grid of traps on path; it stays in memory for the caller to read
+      for (int i=0; i<cells.length;i++){
+        if (cells[i]==Grid.TRAP){
+          trapsOnPath.cells[i]=Grid.TRAP;
+        }
+      }
+      return;
+    }
+
+    int top=push(cell, steps, 0, (mode==3) ? TRAP_PASS : NORMAL_PASS);
+
+    if (framePrevious[top]==Grid.OPEN){ //Leaves breadcrumbs to prevent backtracking
+      cells[cell]=Grid.CRUMB;
+    } else if ((framePrevious[top]==Grid.POTENTIAL) && (mode!=3)){ //In mode 3, P's are passible and should not be turned into traps
+      cells[cell]=Grid.TRAP;
+    }
+  }
+
+  /**
+   * enterHunter
+   * What moveHunter does on entry to a cell: sets a trap if there is one, then either records a result or pushes a frame
+   * @param The cell, the number of steps taken, and the number of traps left to set before entering
+   * @return nothing
+   */
+  private void enterHunter(int cell, int steps, int trapsleft){
+    byte[] cells=grid.cells;
+    byte previous=cells[cell];
+    int undoMark=grid.mark();
+    Metrics.count(Metrics.CELLS_ENTERED);
+
+    if(previous==Grid.TRAP){
+      cells[cell]=Grid.OPEN; //The trap is removed when it is reached
+      trapsleft-=1;
+
+      if (mode==2){
+        if (steps >= results.maxMonsterSteps()){ //To increase efficiency, when the number of steps with backtracking is greater than the minimum steps without backtracking, the search stops here
+          cells[cell]=previous;
+          Metrics.count(Metrics.BRANCHES_PRUNED);
+          return;
+        }
+
+        grid.clearCrumbs(); //Deletes the bread crumbs
+      }
+
+      if(trapsleft==0){
+        results.hunterSteps(steps);//Records the number of steps to set all traps
+        Metrics.count(Metrics.LEAVES_REACHED);
+        cells[cell]=previous;
+        grid.rollback(undoMark);
+        return;
+      }
+    }
+
+    int top=push(cell, steps, trapsleft, NORMAL_PASS);
+    framePrevious[top]=previous;
+    frameUndo[top]=undoMark;
+
+    if (cells[cell]==Grid.OPEN){ //Leaves breadcrumbs
+      cells[cell]=Grid.CRUMB;
+    }
+  }
+
+  /**
+   * push
+   * Adds a frame, doubling the stack if it is full
+   * @param The cell, the number of steps, the traps left, and the first direction to try
+   * @return The index of the new frame
+   */
+  private int push(int cell, int steps, int trapsleft, int direction){
+    if (depth==frameCell.length){
+      int capacity=depth*2;
+      frameCell=Arrays.copyOf(frameCell, capacity);
+      frameDirection=Arrays.copyOf(frameDirection, capacity);
+      frameSteps=Arrays.copyOf(frameSteps, capacity);
+      frameTrapsLeft=Arrays.copyOf(frameTrapsLeft, capacity);
+      frameUndo=Arrays.copyOf(frameUndo, capacity);
+      framePrevious=Arrays.copyOf(framePrevious, capacity);
+    }
+    frameCell[depth]=cell;
+    frameSteps[depth]=steps;
+    frameTrapsLeft[depth]=trapsleft;
+    frameDirection[depth]=direction;
+    framePrevious[depth]=grid.cells[cell];
+    frameUndo[depth]=grid.mark();
+    return depth++;
+  }
+
+  /**
+   * checkpoint
+   * Copies the whole state of a paused search, including the grids it marks
+   * @return A checkpoint that restore can carry on from
+   */
+  Checkpoint checkpoint(){
+    Checkpoint checkpoint=new Checkpoint();
+    checkpoint.grid=grid.copy();
+    checkpoint.trapsOnPath=(trapsOnPath!=null) ? trapsOnPath.copy() : null;
+    checkpoint.hunter=hunter;
+    checkpoint.mode=mode;
+    checkpoint.frameCell=Arrays.copyOf(frameCell, depth);
+    checkpoint.frameDirection=Arrays.copyOf(frameDirection, depth);
+    checkpoint.frameSteps=Arrays.copyOf(frameSteps, depth);
+    checkpoint.frameTrapsLeft=Arrays.copyOf(frameTrapsLeft, depth);
+    checkpoint.frameUndo=Arrays.copyOf(frameUndo, depth);
+    checkpoint.framePrevious=Arrays.copyOf(framePrevious, depth);
+    return checkpoint;
+  }
+
+  /**
+   * restore
+   * Makes a new engine that carries on from a checkpoint on its own copies of the grids
+   * @param The checkpoint, the sink for a search of move, and the results for a search of moveHunter
+   * @return The engine, ready to run
+   */
+  static SearchEngine restore(Checkpoint checkpoint, ResultSink sink, Results results){
+    SearchEngine engine=new SearchEngine(checkpoint.grid.copy(), (checkpoint.trapsOnPath!=null) ? checkpoint.trapsOnPath.copy() : null,
+                                         checkpoint.hunter, checkpoint.mode, checkpoint.hunter ? results : sink, results,
+                                         checkpoint.frameCell.length);
+    int depth=checkpoint.frameCell.length;
+    System.arraycopy(checkpoint.frameCell, 0, engine.frameCell, 0, depth);
+    System.arraycopy(checkpoint.frameDirection, 0, engine.frameDirection, 0, depth);
+    System.arraycopy(checkpoint.frameSteps, 0, engine.frameSteps, 0, depth);
+    System.arraycopy(checkpoint.frameTrapsLeft, 0, engine.frameTrapsLeft, 0, depth);
+    System.arraycopy(checkpoint.frameUndo, 0, engine.frameUndo, 0, depth);
+    System.arraycopy(checkpoint.framePrevious, 0, engine.framePrevious, 0, depth);
+    engine.depth=depth;
+    return engine;
+  }
+
+  /**
+   * Checkpoint
+   * The saved state of a search
+   */
+  static class Checkpoint{
+    private Grid grid;
+    private Grid trapsOnPath;
+    private boolean hunter;
+    private int mode;
+    private int[] frameCell;
+    private int[] frameDirection;
+    private int[] frameSteps;
+    private int[] frameTrapsLeft;
+    private int[] frameUndo;
+    private byte[] framePrevious;
+  }
+}
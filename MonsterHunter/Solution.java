@@ -0,0 +1,50 @@
+/* Solution.java
+ * The answers for one map: the grid with the minimum traps set, and the step counts written below it
+ */
+
+class Solution{
+  final Grid traps;
+  final int monsterSteps;
+  final int hunterSteps;
+  final boolean treeMaze;
+  final int[] mandatoryTraps; //Potential traps every path to the exit passes through; any one of them seals the maze
+  final boolean proven; //False if a deadline stopped a search, so the steps are the best found rather than the optimum
+  final StepHistogram monsterHistogram; //The steps of every capture the search found
+  final StepHistogram hunterHistogram; //The steps of every walk through all traps --enumerate searched; empty for the planner
+  
+  /**
+   * Solution
+   * A proven solution without distributions, as an editing session gives
+   * @param The maze with the minimum traps set, the maximum steps before the monster's capture,
+   * the minimum steps to set the traps, whether the capture steps came from a single tree traversal,
+   * and the grid cells of the mandatory traps
+   */
+  Solution(Grid traps, int monsterSteps, int hunterSteps, boolean treeMaze, int[] mandatoryTraps){
+    this(traps, monsterSteps, hunterSteps, treeMaze, mandatoryTraps, true, new StepHistogram(), new StepHistogram());
+  }
+  
+  /**
+   * Solution
+   * @param The same as above, whether every search ran to the end, and the distributions of the monster's and the-
+   * hunter's steps
+   */
+  Solution(Grid traps, int monsterSteps, int hunterSteps, boolean treeMaze, int[] mandatoryTraps, boolean proven,
+           StepHistogram monsterHistogram, StepHistogram hunterHistogram){
+    this.traps=traps;
+    this.monsterSteps=monsterSteps;
+    this.hunterSteps=hunterSteps;
+    this.treeMaze=treeMaze;
+    this.mandatoryTraps=mandatoryTraps;
+    this.proven=proven;
+    this.monsterHistogram=monsterHistogram;
+    this.hunterHistogram=hunterHistogram;
+  }
+  
+  /**
+   * trapCount
+   * @return The number of traps set
+   */
+  int trapCount(){
+    return traps.count(Grid.TRAP);
+  }
+}
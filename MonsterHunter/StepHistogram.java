@@ -0,0 +1,162 @@
+/* StepHistogram.java
+ * Counts step totals in a fixed number of buckets, so a search can record every path it finds in constant memory
+ * Totals below 64 have a bucket each; above that every power of two is split into 32 buckets, so a percentile read back-
+ * is never more than about 3% above the true total
+ * Two histograms are merged by adding their counts, so each thread can record into its own and combine them at the end
+ */
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+class StepHistogram{
+  private static final int SUB_BITS=5;
+  private static final int SUB_BUCKETS=1<<SUB_BITS; //Buckets per power of two
+  static final int BUCKETS=(30-SUB_BITS)*SUB_BUCKETS+2*SUB_BUCKETS; //Enough for any non-negative int
+
+  private final long[] counts=new long[BUCKETS];
+  private long total=0;
+  private int min=Integer.MAX_VALUE;
+  private int max=0;
+
+  /**
+   * bucket
+   * @param A step total
+   * @return The bucket that counts it
+   */
+  static int bucket(int steps){
+    int shift=Math.max(0, (31-Integer.numberOfLeadingZeros(Math.max(steps, 1)))-SUB_BITS);
+    return shift*SUB_BUCKETS+(steps>>>shift);
+  }
+
+  /**
+   * highest
+   * @param A bucket
+   * @return The largest step total the bucket counts
+   */
+  static int highest(int bucket){
+    int shift=Math.max(0, bucket/SUB_BUCKETS-1);
+    return (int)((((long)(bucket-shift*SUB_BUCKETS)+1)<<shift)-1);
+  }
+
+  /**
+   * record
+   * @param A step total; a negative one is counted as 0
+   * @return nothing
+   */
+  void record(int steps){
+    steps=Math.max(steps, 0);
+    counts[bucket(steps)]+=1;
+    total+=1;
+    min=Math.min(min, steps);
+    max=Math.max(max, steps);
+  }
+
+  /**
+   * add
+   * Merges another histogram into this one
+   * @param The other histogram
+   * @return nothing
+   */
+  void add(StepHistogram other){
+    for (int i=0; i<BUCKETS; i++){
+      counts[i]+=other.counts[i];
+    }
+    total+=other.total;
+    min=Math.min(min, other.min);
+    max=Math.max(max, other.max);
+  }
+
+  /**
+   * count
+   * @return The number of step totals recorded
+   */
+  long count(){
+    return total;
+  }
+
+  /**
+   * max
+   * @return The largest step total recorded, exactly, or 0 if there is none
+   */
+  int max(){
+    return max;
+  }
+
+  /**
+   * min
+   * @return The smallest step total recorded, exactly, or 0 if there is none
+   */
+  int min(){
+    return (total>0) ? min : 0;
+  }
+
+  /**
+   * percentile
+   * @param The fraction of totals that are at or below the answer, such as 0.9
+   * @return The largest total of the bucket where that fraction is reached, never more than the maximum; 0 if empty
+   */
+  int percentile(double fraction){
+    if (total==0){
+      return 0;
+    }
+    long rank=Math.max(1, (long)Math.ceil(fraction*total));
+    long seen=0;
+    for (int i=0; i<BUCKETS; i++){
+      seen+=counts[i];
+      if (seen>=rank){
+        return Math.min(highest(i), max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * write
+   * The buckets that hold something, as a count of them followed by bucket and count pairs, then the minimum and maximum
+   * @param The stream to write to
+   * @return nothing
+   */
+  void write(DataOutputStream output) throws IOException{
+    int used=0;
+    for (int i=0; i<BUCKETS; i++){
+      if (counts[i]>0){
+        used+=1;
+      }
+    }
+    output.writeInt(used);
+    for (int i=0; i<BUCKETS; i++){
+      if (counts[i]>0){
+        output.writeInt(i);
+        output.writeLong(counts[i]);
+      }
+    }
+    output.writeInt(min);
+    output.writeInt(max);
+  }
+
+  /**
+   * read
+   * @param A stream positioned at a histogram written by write
+   * @return The histogram
+   */
+  static StepHistogram read(DataInputStream input) throws IOException{
+    StepHistogram histogram=new StepHistogram();
+    int used=input.readInt();
+    if ((used<0) || (used>BUCKETS)){
+      throw new IOException("Corrupt histogram");
+    }
+    for (int k=0; k<used; k++){
+      int i=input.readInt();
+      long count=input.readLong();
+      if ((i<0) || (i>=BUCKETS) || (count<0)){
+        throw new IOException("Corrupt histogram");
+      }
+      histogram.counts[i]+=count;
+      histogram.total+=count;
+    }
+    histogram.min=input.readInt();
+    histogram.max=input.readInt();
+    return histogram;
+  }
+}
@@ -0,0 +1,67 @@
+/* TextDumpSink.java
+ * A debugging sink that writes every result to BlockCombos.txt and NumberStepsList.txt, or files of the caller's choosing
+ */
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+
+class TextDumpSink implements ResultSink{
+  private final PrintWriter blockCombos;
+  private final PrintWriter stepsList;
+  private boolean hunterStarted=false;
+  
+  /**
+   * TextDumpSink
+   * Creates BlockCombos.txt and NumberStepsList.txt in the working directory
+   */
+  TextDumpSink() throws Exception{
+    this(new File("BlockCombos.txt"), new File("NumberStepsList.txt"));
+  }
+  
+  /**
+   * TextDumpSink
+   * Creates both files, each opened once and buffered
+   * @param The file for the block combinations and the file for the step counts
+   */
+  TextDumpSink(File blockCombosFile, File stepsListFile) throws Exception{
+    blockCombos=new PrintWriter(new BufferedWriter(new FileWriter(blockCombosFile)));
+    stepsList=new PrintWriter(new BufferedWriter(new FileWriter(stepsListFile)));
+    
+    blockCombos.println("List of Block Combinations");
+    stepsList.println(-1);
+  }
+  
+  public void passedThrough(){
+    blockCombos.println("Passed Through");
+  }
+  
+  public void blockCombo(String binaryCode, int trapCount){
+    blockCombos.println(binaryCode);
+    blockCombos.println(trapCount);
+    blockCombos.println("-----"); //Adds a divider before a new blocked array
+  }
+  
+  public void monsterSteps(int steps){
+    stepsList.println(steps);
+  }
+  
+  public void hunterSteps(int steps){
+    if (!hunterStarted){
+      stepsList.println(-1); //Divides the list of monster steps and the list of hunter steps
+      hunterStarted=true;
+    }
+    stepsList.println(steps);
+  }
+  
+  /**
+   * close
+   * Flushes and closes both files
+   * @return nothing
+   */
+  void close(){
+    blockCombos.close();
+    stepsList.close();
+  }
+}
@@ -0,0 +1,170 @@
+/* TrapCutSolver.java
+ * Finds the minimum set of traps that separates the monster from the exit as a minimum vertex cut
+ * Every cell is split into an in-node and an out-node; the edge between them has a capacity of 1 for a-
+ * potential trap and is unbreakable for any other cell, so the maximum flow equals the minimum number of traps
+ * When several cuts are minimal the one with the lowest cells is returned, the same one the enumeration picks
+ */
+
+import java.util.Arrays;
+
+class TrapCutSolver{
+  private final MazeGraph graph;
+  private final int infinite;
+
+  //Flow network stored as linked lists of edges; edge e and e^1 are a pair of forward and reverse edges
+  private final int[] head;
+  private final int[] next;
+  private final int[] to;
+  private final int[] capacity;
+  private final int[] splitEdge; //The edge from the in-node to the out-node of every graph node
+  private int edgeCount=0;
+
+  //Scratch space for the searches of the residual network
+  private final int[] parentEdge;
+  private final int[] queue;
+
+  /**
+   * TrapCutSolver
+   * Builds the split-node flow network of a maze graph
+   * @param The graph of the cells the monster can walk through
+   */
+  TrapCutSolver(MazeGraph graph){
+    this.graph=graph;
+
+    int traps=0;
+    for (int v=0; v<graph.nodeCount; v++){
+      if (graph.trap(v)){
+        traps+=1;
+      }
+    }
+    infinite=traps+1; //Blocking every trap costs less than this, so any flow this large cannot be cut
+
+    int edges=2*(graph.nodeCount+graph.first[graph.nodeCount]);
+    head=new int[2*graph.nodeCount];
+    next=new int[edges];
+    to=new int[edges];
+    capacity=new int[edges];
+    splitEdge=new int[graph.nodeCount];
+    parentEdge=new int[head.length];
+    queue=new int[head.length];
+    Arrays.fill(head, -1);
+
+    for (int v=0; v<graph.nodeCount; v++){
+      splitEdge[v]=edgeCount;
+      addEdge(2*v, 2*v+1, graph.trap(v) ? 1 : infinite);
+      for (int e=graph.first[v]; e<graph.first[v+1]; e++){
+        addEdge(2*v+1, 2*graph.target[e], infinite);
+      }
+    }
+  }
+
+  private void addEdge(int from, int toNode, int cap){
+    to[edgeCount]=toNode;
+    capacity[edgeCount]=cap;
+    next[edgeCount]=head[from];
+    head[from]=edgeCount++;
+
+    to[edgeCount]=from;
+    capacity[edgeCount]=0;
+    next[edgeCount]=head[toNode];
+    head[toNode]=edgeCount++;
+  }
+
+  /**
+   * search
+   * Breadth-first search of the residual network, leaving the edge used to reach every node in parentEdge
+   * @param The node to start from and the node to look for
+   * @return True if the node was reached
+   */
+  private boolean search(int from, int goal){
+    Arrays.fill(parentEdge, -1);
+    int size=0;
+    queue[size++]=from;
+    parentEdge[from]=-2;
+
+    for (int i=0; (i<size) && (parentEdge[goal]==-1); i++){
+      int node=queue[i];
+      for (int e=head[node]; e>=0; e=next[e]){
+        if ((capacity[e]>0) && (parentEdge[to[e]]==-1)){
+          parentEdge[to[e]]=e;
+          queue[size++]=to[e];
+        }
+      }
+    }
+    return parentEdge[goal]!=-1;
+  }
+
+  /**
+   * augment
+   * Pushes flow along a shortest path of the residual network
+   * @param The node to push from, the node to push to and the most flow to push
+   * @return The flow pushed, or 0 if there is no path
+   */
+  private int augment(int from, int goal, int limit){
+    if (!search(from, goal)){
+      return 0;
+    }
+    int amount=limit;
+    for (int node=goal; node!=from; node=to[parentEdge[node]^1]){
+      amount=Math.min(amount, capacity[parentEdge[node]]);
+    }
+    for (int node=goal; node!=from; node=to[parentEdge[node]^1]){
+      capacity[parentEdge[node]]-=amount;
+      capacity[parentEdge[node]^1]+=amount;
+    }
+    return amount;
+  }
+
+  /**
+   * minimumCut
+   * Pushes flow along shortest augmenting paths until none is left, then picks the traps of the cut in ascending cell order:
+   * a trap is taken when it carries flow that cannot go around it, and its unit of flow is then taken out of the network,
+   * so the traps left over still have to cut the rest of the flow
+   * The flow runs from the super-source to the super-sink, so one cut separates every entrance from every exit
+   * The start cells are never cut, since the monster is already standing on them
+   * @return The grid cells of the traps in the cut in ascending order; empty if the exits cannot be blocked or reached
+   */
+  int[] minimumCut(){
+    if (graph.source<0){
+      return new int[0];
+    }
+
+    int source=2*graph.source+1;
+    int sink=2*graph.sink;
+    int flow=0;
+    int amount;
+    //Every trap has a capacity of 1, so each path carries one unit unless it avoids all traps
+    while ((flow<infinite) && ((amount=augment(source, sink, infinite))>0)){
+      flow+=amount;
+    }
+
+    if (flow>=infinite){
+      return new int[0]; //The exit can be reached without passing any potential trap
+    }
+
+    Integer[] traps=new Integer[graph.nodeCount];
+    int trapCount=0;
+    for (int v=0; v<graph.nodeCount; v++){
+      if (graph.trap(v)){
+        traps[trapCount++]=v;
+      }
+    }
+    Arrays.sort(traps, 0, trapCount, (a, b) -> Integer.compare(graph.cell[a], graph.cell[b]));
+
+    int count=0;
+    int[] cut=new int[flow];
+    for (int i=0; (i<trapCount) && (count<flow); i++){
+      int v=traps[i];
+      int e=splitEdge[v];
+      if ((capacity[e]>0) || (search(2*v, 2*v+1))){
+        continue; //No flow passes the trap, or the flow can be sent around it, so no minimum cut left needs it
+      }
+      //Drop the trap together with the unit of flow through it by sending that unit back to the source and the sink
+      capacity[e^1]=0;
+      augment(2*v, source, 1);
+      augment(sink, 2*v+1, 1);
+      cut[count++]=graph.cell[v];
+    }
+    return cut;
+  }
+}
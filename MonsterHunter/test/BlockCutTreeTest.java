@@ -0,0 +1,58 @@
+/* BlockCutTreeTest.java
+ * The dominating traps read off the block-cut tree have to be exactly the single traps that seal the map on their own,
+ * as the combinations of blocked traps find them, with one or several entrances and exits
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class BlockCutTreeTest{
+  @Test
+  void dominatorsMatchSingleTrapCombinations(){
+    int withDominators=0;
+    for (long seed=1; seed<=200; seed++){
+      int size=4+(int)(seed%5);
+      char[][] map=MazeGenerator.generate(size, (seed%4)*0.05, 3+(int)(seed%6), seed);
+      if (seed%3==0){
+        map[map.length-2][0]='N'; //A second entrance at the bottom left
+      }
+      if (seed%2==0){
+        map[1][map.length-1]='F'; //A second exit at the top right
+      }
+      Grid maze=new Grid(map[0].length, map.length);
+      for (int y=0; y<map.length; y++){
+        for (int x=0; x<map[y].length; x++){
+          maze.cells[maze.index(y, x)]=(byte)map[y][x];
+        }
+      }
+
+      int[] startCells=maze.startCells();
+      int[] exitCells=maze.findAll(Grid.EXIT);
+      BlockCutTree blocks=new BlockCutTree(MazeGraph.junctions(maze, Grid.MONSTER_PASSABLE, Grid.MONSTER_NODES, startCells).withTerminals(startCells, exitCells));
+      int[] dominators=blocks.dominatingTraps().clone();
+      Arrays.sort(dominators);
+
+      //Blocks each on-path trap alone, as the combination with a single 1 does
+      Bitboard board=new Bitboard(maze, Grid.MONSTER_PASSABLE);
+      long[] reach=board.newBuffer();
+      int[] onPath=blocks.trapsOnPath();
+      int[] sealing=new int[onPath.length];
+      int count=0;
+      for (int i=0; i<onPath.length; i++){
+        board.block(onPath[i]);
+        if (!board.reaches(startCells, exitCells, reach)){
+          sealing[count++]=onPath[i];
+        }
+        board.unblock(onPath[i]);
+      }
+      assertArrayEquals(Arrays.copyOf(sealing, count), dominators, "seed "+seed);
+      if (count>0){
+        withDominators+=1;
+      }
+    }
+    assertTrue(withDominators>=30, "too few maps with a mandatory trap: "+withDominators);
+  }
+}
@@ -0,0 +1,84 @@
+/* CaptureSearchTest.java
+ * The capture search has to report the same paths as mode 3 of move wherever mode 3 follows simple paths,
+ * which is on maps where every potential trap left over has been opened up
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CaptureSearchTest{
+  @TempDir
+  Path directory;
+
+  @Test
+  void pathsMatchModeThreeWithoutPotentialTraps() throws Exception{
+    File output=directory.resolve("solution.txt").toFile();
+    int compared=0;
+    for (long seed=1; seed<=40; seed++){
+      String map=TestMazes.write(directory.resolve("map"+seed+".txt"), 5, 0.3, 7, seed);
+      Solution solution=MonsterHunter.solve(map, output, null, new String[0]);
+      if (solution.trapCount()==0){
+        continue;
+      }
+      Grid grid=solution.traps.copy();
+      grid.replaceAll(Grid.POTENTIAL, Grid.OPEN);
+      int[] startCells=grid.startCells();
+
+      Results reference=new Results(null);
+      for (int i=0; i<startCells.length; i++){
+        MonsterHunter.move(grid.copy(), startCells[i], grid.copy(), 3, 1, reference);
+      }
+      Results search=new Results(null);
+      CaptureSearch.run(MazeGraph.junctions(grid, Grid.CAPTURE_PASSABLE, Grid.TRAP_NODES, startCells).withTerminals(startCells, new int[0]), search);
+
+      assertEquals(reference.maxMonsterSteps(), search.maxMonsterSteps(), "longest path of seed "+seed);
+      assertEquals(reference.monsterHistogram().count(), search.monsterHistogram().count(), "paths of seed "+seed);
+      assertEquals(reference.monsterHistogram().min(), search.monsterHistogram().min(), "shortest path of seed "+seed);
+      compared+=1;
+    }
+    assertTrue(compared>=20, "too few maps could be sealed: "+compared);
+  }
+
+  @Test
+  void passedDeadlineStillReportsAPath() throws Exception{
+    //Where loops keep the region from being a tree, the path search runs and stops at its first check of the clock
+    File output=directory.resolve("solution.txt").toFile();
+    int compared=0;
+    for (long seed=1; seed<=30; seed++){
+      String map=TestMazes.write(directory.resolve("map"+seed+".txt"), 6, 0.4, 5, seed);
+      Solution solution=MonsterHunter.solve(map, output, null, new String[0]);
+      if ((solution.trapCount()==0) || (solution.treeMaze)){
+        continue;
+      }
+      Grid grid=solution.traps.copy();
+      int[] startCells=grid.startCells();
+
+      Results results=new Results(null);
+      int search=CaptureSearch.run(MazeGraph.junctions(grid, Grid.CAPTURE_PASSABLE, Grid.TRAP_NODES, startCells).withTerminals(startCells, new int[0]), results, Deadline.after(0));
+      assertEquals(CaptureSearch.CUT_SHORT, search, "search of seed "+seed);
+      assertTrue(results.maxMonsterSteps()>0, "steps of seed "+seed);
+      assertTrue(results.maxMonsterSteps()<=solution.monsterSteps, "steps of seed "+seed);
+      compared+=1;
+    }
+    assertTrue(compared>=5, "too few maps had loops: "+compared);
+  }
+
+  @Test
+  void openMapWithoutTrapsIsNotSearched() throws Exception{
+    //A room with no walls inside has more simple paths than could ever be followed, and none of them ends on a trap
+    char[][] map=MazeGenerator.generate(20, 1.0, 0, 1);
+    String file=TestMazes.write(directory.resolve("open.txt"), map);
+    File output=directory.resolve("solution.txt").toFile();
+    Solution solution=assertTimeoutPreemptively(Duration.ofSeconds(10), () -> MonsterHunter.solve(file, output, null, new String[0]));
+    assertEquals(0, solution.trapCount());
+    assertEquals(0, solution.monsterSteps);
+    assertEquals(0, MazeSession.open(file).solution().monsterSteps);
+  }
+}
@@ -0,0 +1,84 @@
+/* HunterPlannerTest.java
+ * Branch and bound has to find walks exactly as short as Held-Karp above the size where solve switches between them,
+ * and both have to hand back a whole walk when the deadline has already passed
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class HunterPlannerTest{
+  /**
+   * manhattan
+   * @param The number of traps and the random numbers to place them with
+   * @return The distances between traps spread over a 40 by 40 room, as a maze without walls would give them
+   */
+  private static int[][] manhattan(int count, Random random){
+    int[] y=new int[count];
+    int[] x=new int[count];
+    for (int i=0; i<count; i++){
+      y[i]=random.nextInt(40);
+      x[i]=random.nextInt(40);
+    }
+    int[][] distance=new int[count][count];
+    for (int i=0; i<count; i++){
+      for (int j=0; j<count; j++){
+        distance[i][j]=Math.abs(y[i]-y[j])+Math.abs(x[i]-x[j]);
+      }
+    }
+    return distance;
+  }
+
+  /**
+   * scattered
+   * @param The number of traps and the random numbers to pick distances with
+   * @return Symmetric distances with no geometry behind them, so greedy walks and 2-opt start far from the answer
+   */
+  private static int[][] scattered(int count, Random random){
+    int[][] distance=new int[count][count];
+    for (int i=0; i<count; i++){
+      for (int j=i+1; j<count; j++){
+        distance[i][j]=1+random.nextInt(60);
+        distance[j][i]=distance[i][j];
+      }
+    }
+    return distance;
+  }
+
+  @Test
+  void branchAndBoundMatchesHeldKarp(){
+    Random random=new Random(2017);
+    ForkJoinPool pool=new ForkJoinPool(4);
+    try {
+      for (int count=HunterPlanner.HELD_KARP_LIMIT+1; count<=20; count++){
+        int[][][] instances=new int[][][]{manhattan(count, random), scattered(count, random)};
+        for (int k=0; k<instances.length; k++){
+          int expected=new HunterPlanner(instances[k]).heldKarp();
+          assertEquals(expected, new HunterPlanner(instances[k]).branchAndBound(pool), "instance "+k+" with "+count+" traps");
+          assertEquals(expected, new HunterPlanner(instances[k]).shortestRoute(), "instance "+k+" with "+count+" traps");
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void passedDeadlineKeepsAWalk(){
+    Random random=new Random(2018);
+    int[] counts=new int[]{HunterPlanner.HELD_KARP_LIMIT, HunterPlanner.HELD_KARP_LIMIT+4};
+    for (int k=0; k<counts.length; k++){
+      int[][] distance=scattered(counts[k], random);
+      int shortest=new HunterPlanner(distance).shortestRoute();
+      HunterPlanner planner=new HunterPlanner(distance);
+      int steps=planner.shortestRoute(Deadline.after(0));
+      assertFalse(planner.proven(), counts[k]+" traps");
+      assertTrue(steps>=shortest, counts[k]+" traps");
+      assertTrue(steps<HunterPlanner.UNREACHABLE, counts[k]+" traps");
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/* MazeSessionTest.java
+ * After every edit the session has to give the same answers as solving the edited map from scratch
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MazeSessionTest{
+  @TempDir
+  Path directory;
+
+  @Test
+  void everyEditMatchesSolve() throws Exception{
+    Random random=new Random(7);
+    File output=directory.resolve("solution.txt").toFile();
+    int checks=0;
+    for (int t=0; t<40; t++){
+      String map=TestMazes.write(directory.resolve("map.txt"), 4+random.nextInt(5), random.nextDouble()*0.15, 1+random.nextInt(7), t);
+      MazeSession session=MazeSession.open(map);
+      Grid maze=MapLoader.load(map);
+      for (int e=0; e<20; e++){
+        int y=1+random.nextInt(maze.height-2);
+        int x=1+random.nextInt(maze.width-2);
+        int kind=random.nextInt(4);
+        try {
+          if (kind==0){
+            session.openCell(y, x);
+          } else if (kind==1){
+            session.closeCell(y, x);
+          } else if (kind==2){
+            session.addTrap(y, x);
+          } else {
+            session.removeTrap(y, x);
+          }
+        } catch (IllegalArgumentException ex){
+          continue; //The edit does not apply to that cell
+        }
+
+        //The edited map is the session's answer with its traps turned back into potential traps
+        Solution got=session.solution();
+        Grid edited=got.traps.copy();
+        edited.replaceAll(Grid.TRAP, Grid.POTENTIAL);
+        Solution want=MonsterHunter.solve(TestMazes.write(directory.resolve("edited.txt"), edited), output, null, new String[0]);
+
+        String edit="map "+t+" edit "+e;
+        assertArrayEquals(want.traps.cells, got.traps.cells, "traps after "+edit);
+        assertEquals(want.monsterSteps, got.monsterSteps, "capture steps after "+edit);
+        assertEquals(want.hunterSteps, got.hunterSteps, "hunter steps after "+edit);
+        assertEquals(want.treeMaze, got.treeMaze, "tree traversal after "+edit);
+        assertArrayEquals(want.mandatoryTraps, got.mandatoryTraps, "mandatory traps after "+edit);
+        checks+=1;
+      }
+    }
+    assertTrue(checks>=200, "too few edits applied: "+checks);
+  }
+}
@@ -0,0 +1,71 @@
+/* ReportWriterTest.java
+ * The JSON report has to stay valid whatever bytes the map holds, the binary report has to carry the mandatory traps,
+ * and only walks that were searched one by one make up the hunter's distribution; an empty one is written as null
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReportWriterTest{
+  @TempDir
+  Path directory;
+
+  /**
+   * solution
+   * @param The cells of a grid two rows high and two cells wide, and the mandatory traps
+   * @return A solution on that grid
+   */
+  private static Solution solution(byte[] cells, int... mandatoryTraps){
+    Grid grid=new Grid(2, 2);
+    System.arraycopy(cells, 0, grid.cells, 0, cells.length);
+    return new Solution(grid, 5, 7, false, mandatoryTraps, true, new StepHistogram(), new StepHistogram());
+  }
+
+  @Test
+  void jsonEscapesEveryByteOutsidePrintableAscii(){
+    ByteBuffer buffer=ReportWriter.json(solution(new byte[]{'"', '\\', '\t', (byte)0xe9}));
+    String json=new String(buffer.array(), 0, buffer.limit(), StandardCharsets.US_ASCII);
+    assertTrue(json.startsWith("{\"width\":2,\"height\":2,\"grid\":[\"\\\"\\\\\",\"\\u0009\\u00e9\"],"), json);
+  }
+
+  @Test
+  void onlyEnumeratedWalksHaveADistribution() throws Exception{
+    String map=TestMazes.write(directory.resolve("map.txt"), 5, 0.3, 7, 3);
+    File output=directory.resolve("solution.txt").toFile();
+    Solution planned=MonsterHunter.solve(map, output, null, new String[0]);
+    assertEquals(0, planned.hunterHistogram.count());
+    assertTrue(planned.hunterSteps>0);
+    assertTrue(!new String(Files.readAllBytes(output.toPath()), StandardCharsets.US_ASCII).contains("hunter steps p50"));
+    ByteBuffer json=ReportWriter.json(planned);
+    assertTrue(new String(json.array(), 0, json.limit(), StandardCharsets.US_ASCII).contains("\"hunterDistribution\":null}"));
+
+    Solution enumerated=MonsterHunter.solve(map, output, null, new String[]{"--enumerate"});
+    assertTrue(enumerated.hunterHistogram.count()>0);
+    assertTrue(new String(Files.readAllBytes(output.toPath()), StandardCharsets.US_ASCII).contains("hunter steps p50"));
+  }
+
+  @Test
+  void binaryCarriesTheMandatoryTraps(){
+    ByteBuffer buffer=ReportWriter.binary(solution(new byte[]{'P', 'T', ' ', 'F'}, 1, 2));
+    assertEquals(0x4d485231, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    assertEquals(5, buffer.getInt());
+    assertEquals(7, buffer.getInt());
+    buffer.position(buffer.position()+2+4);
+    assertEquals(2, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    assertEquals(0L, buffer.getLong());
+    assertEquals(0L, buffer.getLong());
+    assertEquals(0, buffer.remaining());
+  }
+}
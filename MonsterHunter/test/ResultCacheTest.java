@@ -0,0 +1,57 @@
+/* ResultCacheTest.java
+ * Answers found in one mode must not answer another, the memory tier must stay within its bytes,
+ * and each cache directory must keep its own answers
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultCacheTest{
+  @TempDir
+  Path directory;
+
+  @Test
+  void modesHaveTheirOwnKeys() throws Exception{
+    Grid maze=MapLoader.load(TestMazes.write(directory.resolve("map.txt"), 5, 0.3, 7, 3));
+    String plain=ResultCache.key(maze, new String[]{"--cache"});
+    assertEquals(plain, ResultCache.key(maze, new String[]{"--cache", "--deadline", "100"}));
+    assertNotEquals(plain, ResultCache.key(maze, new String[]{"--cache", "--enumerate"}));
+    assertNotEquals(ResultCache.key(maze, new String[]{"--enumerate"}), ResultCache.key(maze, new String[]{"--enumerate", "--parallel"}));
+  }
+
+  @Test
+  void memoryTierIsBoundedByBytes() throws Exception{
+    File output=directory.resolve("solution.txt").toFile();
+    Solution solution=MonsterHunter.solve(TestMazes.write(directory.resolve("map.txt"), 5, 0.3, 7, 3), output, null, new String[0]);
+
+    //Room for two entries of about 14 KB each, but not three
+    ResultCache cache=new ResultCache(40000, null);
+    cache.put("a", solution);
+    cache.put("b", solution);
+    assertNotNull(cache.get("a", solution.traps));
+    cache.put("c", solution);
+    assertNotNull(cache.get("a", solution.traps));
+    assertNull(cache.get("b", solution.traps), "the least recently used entry is dropped");
+    assertNotNull(cache.get("c", solution.traps));
+  }
+
+  @Test
+  void everyDirectoryHasItsOwnCache(){
+    String first=directory.resolve("first").toString();
+    String second=directory.resolve("second").toString();
+    ResultCache cache=ResultCache.fromOptions(new String[]{"--cache-dir", first});
+    assertSame(cache, ResultCache.fromOptions(new String[]{"--cache-dir", first}));
+    assertNotSame(cache, ResultCache.fromOptions(new String[]{"--cache-dir", second}));
+    assertNotSame(cache, ResultCache.fromOptions(new String[]{"--cache"}));
+    assertNull(ResultCache.fromOptions(new String[0]));
+  }
+}
@@ -0,0 +1,73 @@
+/* SearchEngineTest.java
+ * A search that is paused, checkpointed and restored every few steps has to end with the same results as one run straight through
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SearchEngineTest{
+  @TempDir
+  Path directory;
+
+  /**
+   * resume
+   * Runs a search a few steps at a time, carrying on each time from a checkpoint on a new engine
+   * @param The engine, the number of steps between pauses, and the sink and results the restored engines report to
+   * @return The number of pauses
+   */
+  private static int resume(SearchEngine engine, int steps, ResultSink sink, Results results) throws Exception{
+    int pauses=0;
+    while (!engine.run(steps)){
+      assertTrue(!engine.finished());
+      engine=SearchEngine.restore(engine.checkpoint(), sink, results);
+      pauses+=1;
+    }
+    assertTrue(engine.finished());
+    return pauses;
+  }
+
+  @Test
+  void pausedSearchesMatchUninterruptedOnes() throws Exception{
+    File output=directory.resolve("solution.txt").toFile();
+    int compared=0;
+    for (long seed=1; seed<=20; seed++){
+      String map=TestMazes.write(directory.resolve("map"+seed+".txt"), 5, 0.3, 7, seed);
+      Solution solution=MonsterHunter.solve(map, output, null, new String[0]);
+      if (solution.trapCount()<2){
+        continue;
+      }
+
+      //The monster's search of mode 3, on a grid whose leftover potential traps are opened so every path ends
+      Grid monsterGrid=solution.traps.copy();
+      monsterGrid.replaceAll(Grid.POTENTIAL, Grid.OPEN);
+      int start=monsterGrid.startCells()[0];
+      Results straight=new Results(null);
+      SearchEngine.monster(monsterGrid.copy(), start, monsterGrid.copy(), 3, 1, straight).run(Long.MAX_VALUE);
+      Results paused=new Results(null);
+      int pauses=resume(SearchEngine.monster(monsterGrid.copy(), start, monsterGrid.copy(), 3, 1, paused), 7, paused, null);
+      assertTrue(pauses>0);
+      assertEquals(straight.maxMonsterSteps(), paused.maxMonsterSteps(), "capture steps of seed "+seed);
+      assertEquals(straight.monsterHistogram().count(), paused.monsterHistogram().count(), "paths of seed "+seed);
+
+      //The hunter's search without backtracking, around the entrances and exits
+      Grid hunterGrid=solution.traps.copy();
+      hunterGrid.replaceAll(Grid.ENTRANCE, Grid.WALL);
+      hunterGrid.replaceAll(Grid.EXIT, Grid.WALL);
+      int[] traps=hunterGrid.findAll(Grid.TRAP);
+      straight=new Results(null);
+      SearchEngine.hunter(hunterGrid.copy(), traps[0], 0, traps.length, 1, straight).run(Long.MAX_VALUE);
+      assertTrue(straight.hunterHistogram().count()>0);
+      paused=new Results(null);
+      resume(SearchEngine.hunter(hunterGrid.copy(), traps[0], 0, traps.length, 1, paused), 5, null, paused);
+      assertEquals(straight.minHunterSteps(traps.length), paused.minHunterSteps(traps.length), "hunter steps of seed "+seed);
+      assertEquals(straight.hunterHistogram().count(), paused.hunterHistogram().count(), "walks of seed "+seed);
+      compared+=1;
+    }
+    assertTrue(compared>=5, "too few maps with several traps: "+compared);
+  }
+}
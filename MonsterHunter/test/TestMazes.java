@@ -0,0 +1,55 @@
+/* TestMazes.java
+ * Saves maps for the tests, in the same format as the hand-made maps
+ */
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class TestMazes{
+  private TestMazes(){
+  }
+
+  /**
+   * write
+   * @param The file to write, and the rows of a map
+   * @return The name of the file
+   */
+  static String write(Path file, char[][] map) throws IOException{
+    StringBuilder text=new StringBuilder();
+    for (int y=0; y<map.length; y++){
+      if (y>0){
+        text.append("\r\n");
+      }
+      text.append(map[y]);
+    }
+    Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+    return file.toString();
+  }
+
+  /**
+   * write
+   * @param The file to write, and a grid
+   * @return The name of the file
+   */
+  static String write(Path file, Grid grid) throws IOException{
+    char[][] map=new char[grid.height][grid.width];
+    for (int y=0; y<grid.height; y++){
+      for (int x=0; x<grid.width; x++){
+        map[y][x]=(char)grid.cells[grid.index(y, x)];
+      }
+    }
+    return write(file, map);
+  }
+
+  /**
+   * write
+   * Generates a map with MazeGenerator and saves it
+   * @param The file to write, then the same as MazeGenerator.generate
+   * @return The name of the file
+   */
+  static String write(Path file, int size, double loopDensity, int trapCount, long seed) throws IOException{
+    return write(file, MazeGenerator.generate(size, loopDensity, trapCount, seed));
+  }
+}
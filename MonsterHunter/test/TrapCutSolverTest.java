@@ -0,0 +1,45 @@
+/* TrapCutSolverTest.java
+ * The cut found with a maximum flow has to set the same traps as trying every combination, loops and ties included
+ */
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrapCutSolverTest{
+  @TempDir
+  Path directory;
+
+  @Test
+  void cutMatchesEnumerationOnLoopedMaps() throws Exception{
+    File output=directory.resolve("solution.txt").toFile();
+    int compared=0;
+    for (long seed=1; seed<=40; seed++){
+      String map=TestMazes.write(directory.resolve("map"+seed+".txt"), 5, 0.3, 7, seed);
+      Solution cut=MonsterHunter.solve(map, output, null, new String[0]);
+      if (cut.trapCount()==0){
+        continue; //The exit cannot be sealed, so there is nothing to compare
+      }
+      Solution combinations=MonsterHunter.solve(map, output, null, new String[]{"--enumerate"});
+      assertArrayEquals(combinations.traps.cells, cut.traps.cells, "traps of seed "+seed);
+      compared+=1;
+    }
+    assertTrue(compared>=20, "too few maps could be sealed: "+compared);
+  }
+
+  @Test
+  void enumerationWithoutTrapsOnAPath() throws Exception{
+    File output=directory.resolve("solution.txt").toFile();
+    String map=TestMazes.write(directory.resolve("open.txt"), 5, 0.3, 0, 1);
+    for (String[] args : new String[][]{{"--enumerate"}, {"--enumerate", "--parallel"}}){
+      Solution solution=MonsterHunter.solve(map, output, null, args);
+      assertEquals(0, solution.trapCount());
+      assertEquals(0, solution.monsterSteps);
+    }
+  }
+}
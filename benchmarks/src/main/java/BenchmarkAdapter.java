@@ -0,0 +1,118 @@
+/* BenchmarkAdapter.java
+ * Gives the benchmarks, which JMH requires to be in a named package, access to the solver in the default package
+ */
+
+import java.nio.file.Path;
+import monsterhunter.bench.Workload;
+
+public class BenchmarkAdapter implements Workload{
+  private Grid maze;
+  private Grid allPathedTrapsArray;
+  private Grid blockingArray;
+  private Grid minTrapArray;
+  private Grid hunterArray;
+  private int[] startCells;
+  private int[] hunterTraps;
+  private int maxMonsterSteps;
+
+  public BenchmarkAdapter(){
+  }
+
+  public void generate(Path file, int size, double loopDensity, int trapCount, long seed) throws Exception{
+    MazeGenerator.write(file, size, loopDensity, trapCount, seed);
+  }
+
+  public void prepare(String fileName) throws Exception{
+    maze=MapLoader.load(fileName);
+    startCells=maze.startCells();
+    int[] exitCells=maze.findAll(Grid.EXIT);
+    MazeGraph monsterGraph=MazeGraph.junctions(maze, Grid.MONSTER_PASSABLE, Grid.MONSTER_NODES, startCells).withTerminals(startCells, exitCells);
+
+    //The grid move marks the on-path traps on
+    int[] onPath=new BlockCutTree(monsterGraph).trapsOnPath();
+    allPathedTrapsArray=maze.copy();
+    for (int i=0; i<onPath.length; i++){
+      allPathedTrapsArray.cells[onPath[i]]=Grid.TRAP;
+    }
+
+    //Mode 2 of move runs on a grid with a combination of traps blocked; the minimum cut is the combination main keeps
+    int[] cut=new TrapCutSolver(monsterGraph).minimumCut();
+    blockingArray=maze.copy();
+    minTrapArray=maze.copy();
+    for (int i=0; i<cut.length; i++){
+      blockingArray.cells[cut[i]]=Grid.BLOCKED;
+      minTrapArray.cells[cut[i]]=Grid.TRAP;
+    }
+
+    Results results=new Results(null);
+    CaptureSearch.run(MazeGraph.junctions(minTrapArray, Grid.CAPTURE_PASSABLE, Grid.TRAP_NODES, startCells).withTerminals(startCells, new int[0]), results);
+    maxMonsterSteps=results.maxMonsterSteps();
+
+    //The hunter cannot leave through an entrance or an exit
+    hunterArray=minTrapArray.copy();
+    hunterArray.replaceAll(Grid.ENTRANCE, Grid.WALL);
+    hunterArray.replaceAll(Grid.EXIT, Grid.WALL);
+    hunterTraps=new int[hunterArray.count(Grid.TRAP)];
+    int count=0;
+    for (int i=0; i<hunterArray.cells.length; i++){
+      if (hunterArray.cells[i]==Grid.TRAP){
+        hunterTraps[count++]=i;
+      }
+    }
+  }
+
+  public Object readFile(String fileName) throws Exception{
+    return MonsterHunter.readFile(fileName);
+  }
+
+  public Object loadMap(String fileName) throws Exception{
+    return MapLoader.load(fileName);
+  }
+
+  public int move(int mode) throws Exception{
+    Counter counter=new Counter();
+    Grid grid=(mode==1) ? maze : (mode==2) ? blockingArray : minTrapArray;
+    for (int i=0; i<startCells.length; i++){
+      MonsterHunter.move(grid.copy(), startCells[i], allPathedTrapsArray.copy(), mode, 1, counter);
+    }
+    return counter.count;
+  }
+
+  public int moveHunter(int mode) throws Exception{
+    Results results=new Results(new Counter());
+    results.monsterSteps(maxMonsterSteps); //Mode 2 stops any walk longer than the monster's longest path
+    Grid grid=hunterArray.copy();
+    for (int i=0; i<hunterTraps.length; i++){
+      MonsterHunter.moveHunter(grid, hunterTraps[i], 0, hunterTraps.length, mode, results);
+    }
+    return results.minHunterSteps(hunterTraps.length);
+  }
+
+  public void solve(String fileName, String... options) throws Exception{
+    MonsterHunter.solve(fileName, options);
+  }
+
+  /**
+   * Counter
+   * Counts the results of a search, so the benchmark has something to consume
+   */
+  private static class Counter implements ResultSink{
+    private int count=0;
+
+    public void passedThrough(){
+      count+=1;
+    }
+
+    public void blockCombo(String binaryCode, int trapCount){
+      count+=1;
+    }
+
+    public void monsterSteps(int steps){
+      count+=1;
+    }
+
+    public void hunterSteps(int steps){
+      count+=1;
+    }
+  }
+}
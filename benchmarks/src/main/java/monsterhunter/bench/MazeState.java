@@ -0,0 +1,38 @@
+/* MazeState.java
+ * A generated maze on disk, prepared once per trial and deleted afterwards
+ */
+
+package monsterhunter.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+final class MazeState{
+  final Path directory;
+  final String fileName;
+  final Workload workload;
+
+  /**
+   * MazeState
+   * @param The number of rooms on each side, the loop density, the number of traps, and the seed
+   */
+  MazeState(int size, double loopDensity, int trapCount, long seed) throws Exception{
+    directory=Files.createTempDirectory("monsterhunter-bench");
+    Path file=directory.resolve("maze-"+size+"-"+loopDensity+"-"+trapCount+"-"+seed+".txt");
+    workload=Workload.create();
+    workload.generate(file, size, loopDensity, trapCount, seed);
+    fileName=file.toString();
+    workload.prepare(fileName);
+  }
+
+  /**
+   * delete
+   * Removes the maze file and its directory
+   * @return nothing
+   */
+  void delete() throws IOException{
+    Files.deleteIfExists(Path.of(fileName));
+    Files.deleteIfExists(directory);
+  }
+}
@@ -0,0 +1,71 @@
+/* PipelineBenchmark.java
+ * Times reading a map and the whole of main from 10x10 to 1000x1000 rooms
+ * The capture steps of a maze with loops are found by following every path, which only finishes on small mazes,
+ * so loops are off by default; add them for small sizes with -p size=10,32 -p loopDensity=0.05
+ * Run from the directory that may receive solution.txt:
+ *   java -jar benchmarks/target/benchmarks.jar PipelineBenchmark -prof gc
+ */
+
+package monsterhunter.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(value=1, jvmArgsAppend="-Xmx4g")
+public class PipelineBenchmark{
+  @Param({"10", "32", "100", "316", "1000"})
+  public int size;
+
+  @Param({"0.0"})
+  public double loopDensity;
+
+  @Param({"8"})
+  public int trapCount;
+
+  @Param({"2018"})
+  public long seed;
+
+  private MazeState maze;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception{
+    maze=new MazeState(size, loopDensity, trapCount, seed);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception{
+    maze.delete();
+  }
+
+  @Benchmark
+  public Object readFile() throws Exception{
+    return maze.workload.readFile(maze.fileName);
+  }
+
+  @Benchmark
+  public Object loadMap() throws Exception{
+    return maze.workload.loadMap(maze.fileName);
+  }
+
+  @Benchmark
+  public void main() throws Exception{
+    maze.workload.solve(maze.fileName);
+  }
+}
@@ -0,0 +1,80 @@
+/* SearchBenchmark.java
+ * Times each mode of move and moveHunter, the exhaustive searches main keeps behind --enumerate
+ * Their running time grows with the number of paths, so the default sizes stop well short of the pipeline's;
+ * perfect mazes (loopDensity 0) have one path to each cell and can be pushed further with -p size=...
+ *   java -jar benchmarks/target/benchmarks.jar SearchBenchmark -prof gc
+ */
+
+package monsterhunter.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=2)
+@Measurement(iterations=5, time=2)
+@Fork(1)
+public class SearchBenchmark{
+  @Param({"10", "20", "40"})
+  public int size;
+
+  @Param({"0.0", "0.02"})
+  public double loopDensity;
+
+  @Param({"4"})
+  public int trapCount;
+
+  @Param({"2018"})
+  public long seed;
+
+  private MazeState maze;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception{
+    maze=new MazeState(size, loopDensity, trapCount, seed);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception{
+    maze.delete();
+  }
+
+  @Benchmark
+  public int moveMode1() throws Exception{
+    return maze.workload.move(1);
+  }
+
+  @Benchmark
+  public int moveMode2() throws Exception{
+    return maze.workload.move(2);
+  }
+
+  @Benchmark
+  public int moveMode3() throws Exception{
+    return maze.workload.move(3);
+  }
+
+  @Benchmark
+  public int moveHunterMode1() throws Exception{
+    return maze.workload.moveHunter(1);
+  }
+
+  @Benchmark
+  public int moveHunterMode2() throws Exception{
+    return maze.workload.moveHunter(2);
+  }
+}
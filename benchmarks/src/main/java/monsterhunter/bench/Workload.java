@@ -0,0 +1,73 @@
+/* Workload.java
+ * The solver steps the benchmarks time
+ * The solver lives in the default package, which a named package cannot import, so it is reached through
+ * BenchmarkAdapter, loaded by name
+ */
+
+package monsterhunter.bench;
+
+import java.nio.file.Path;
+
+public interface Workload{
+  /**
+   * generate
+   * Writes a maze from MazeGenerator
+   * @param The file to write, the number of rooms on each side, the loop density, the number of traps, and the seed
+   * @return nothing
+   */
+  void generate(Path file, int size, double loopDensity, int trapCount, long seed) throws Exception;
+
+  /**
+   * prepare
+   * Loads a map and works out the grids each search starts from, as main does
+   * @param The file name of the map
+   * @return nothing
+   */
+  void prepare(String fileName) throws Exception;
+
+  /**
+   * readFile
+   * @param The file name of the map
+   * @return The map as read by MonsterHunter.readFile
+   */
+  Object readFile(String fileName) throws Exception;
+
+  /**
+   * loadMap
+   * @param The file name of the map
+   * @return The map as loaded by MapLoader
+   */
+  Object loadMap(String fileName) throws Exception;
+
+  /**
+   * move
+   * Runs move on fresh copies of the prepared grids
+   * @param The mode, 1 to 3
+   * @return The number of results the search reported
+   */
+  int move(int mode) throws Exception;
+
+  /**
+   * moveHunter
+   * Runs moveHunter from every trap on a fresh copy of the prepared grid
+   * @param The mode, 1 or 2
+   * @return The minimum number of steps found
+   */
+  int moveHunter(int mode) throws Exception;
+
+  /**
+   * solve
+   * Runs the whole of main on a map, writing solution.txt in the working directory
+   * @param The file name of the map and the command line options
+   * @return nothing
+   */
+  void solve(String fileName, String... options) throws Exception;
+
+  /**
+   * create
+   * @return A new instance of BenchmarkAdapter
+   */
+  static Workload create() throws ReflectiveOperationException{
+    return (Workload)Class.forName("BenchmarkAdapter").getDeclaredConstructor().newInstance();
+  }
+}